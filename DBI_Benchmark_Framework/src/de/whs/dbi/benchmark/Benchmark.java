@@ -1,5 +1,10 @@
 package de.whs.dbi.benchmark;
 
+import java.io.BufferedReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
 import java.rmi.AccessException;
 import java.rmi.AlreadyBoundException;
 import java.rmi.NotBoundException;
@@ -8,7 +13,11 @@ import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
 import java.sql.SQLException;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Random;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -18,10 +27,15 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import de.whs.dbi.loaddriver.LoadDriverIF;
+import de.whs.dbi.loaddriver.TraceRecorder;
 import de.whs.dbi.util.Configuration;
+import de.whs.dbi.util.Histogram;
+import de.whs.dbi.util.PhaseSchedule;
 import de.whs.dbi.util.RemoteLogger;
 import de.whs.dbi.util.RemoteLoggerIF;
 import de.whs.dbi.util.Result;
+import de.whs.dbi.util.TimeSeries;
+import de.whs.dbi.util.TimeSeriesBucket;
 
 /**
  * Benchmark realisiert den Benchmark Controller.
@@ -36,6 +50,49 @@ public class Benchmark extends UnicastRemoteObject implements BenchmarkIF
 	protected RemoteLoggerIF remoteLogger;
 	protected Logger log;
 
+	/**
+	 * Aktuelle Phase
+	 */
+	protected STAGE stage = STAGE.INIT;
+
+	/**
+	 * Ende des zuletzt ausgegebenen Zwischenergebnisses in ms seit 1970 (UTC)
+	 */
+	protected long reported;
+
+	/**
+	 * Anzahl aufeinanderfolgender Zwischenergebnisse, die als Zusammenbruch
+	 * gewertet wurden
+	 */
+	protected int violations;
+
+	/**
+	 * Ablaufplan des aktuellen Laufs
+	 */
+	protected PhaseSchedule schedule;
+
+	/**
+	 * Verzeichnis der Trace-Dateien des letzten Laufs oder null
+	 */
+	protected String traceDirectory;
+
+	/**
+	 * Konfiguration des nchsten Laufs einer Kampagne oder null, falls nach
+	 * dem aktuellen Lauf kein weiterer folgt
+	 */
+	protected volatile Configuration nextConfig;
+
+	/**
+	 * Gibt an, ob sich die LoadDriver nach dem Schlieen fr einen weiteren
+	 * Lauf erneut registrieren sollen
+	 */
+	protected volatile boolean nextRun = false;
+
+	/**
+	 * Differenz zwischen der Uhr des Controllers und System.nanoTime()
+	 */
+	protected long clockBase = System.currentTimeMillis() * 1000000L - System.nanoTime();
+
 	/**
 	 * Der Konstruktor initialisiert den Benchmark, sodass die LoadDriver gestartet werden knnen.
 	 * 
@@ -43,10 +100,26 @@ public class Benchmark extends UnicastRemoteObject implements BenchmarkIF
 	 */
 	public Benchmark() throws Exception
 	{
-		config = new Configuration();
-		config.loadRMIConfiguration();
-		config.loadBenchmarkConfiguration();
-		config.loadTransactionsConfiguration();
+		this(loadConfiguration());
+	}
+
+	/**
+	 * Der Konstruktor initialisiert den Benchmark mit einer bereits geladenen
+	 * Konfiguration, sodass die LoadDriver gestartet werden knnen.
+	 * 
+	 * @param config Konfiguration
+	 * @throws Exception
+	 */
+	public Benchmark(Configuration config) throws Exception
+	{
+		this.config = config;
+
+		// Ohne festen Startwert wird einer gewhlt und mitprotokolliert,
+		// damit der Lauf spter reproduziert werden kann
+		if (config.getRandomSeed() == null)
+		{
+			config.setRandomSeed(new Random().nextLong());
+		}
 
 		remoteLogger = new RemoteLogger(config.getLogLevel());
 		log = Logger.getLogger(Benchmark.class.getCanonicalName());
@@ -66,6 +139,21 @@ public class Benchmark extends UnicastRemoteObject implements BenchmarkIF
 		startRegistry();
 	}
 
+	/**
+	 * Ldt die Konfiguration aus den XML-Konfigurationsdateien.
+	 * 
+	 * @return Konfiguration
+	 * @throws Exception
+	 */
+	protected static Configuration loadConfiguration() throws Exception
+	{
+		Configuration config = new Configuration();
+		config.loadRMIConfiguration();
+		config.loadBenchmarkConfiguration();
+		config.loadTransactionsConfiguration();
+		return config;
+	}
+
 	/**
 	 * Startet die RMI-Registry.
 	 * 
@@ -142,14 +230,26 @@ public class Benchmark extends UnicastRemoteObject implements BenchmarkIF
 	 */
 	protected void closeLoadDrivers() throws RemoteException, SQLException
 	{
-		for (LoadDriverIF loaddriver : loaddrivers)
+		// Die Liste wird vorher geleert, da sich geschlossene LoadDriver fr
+		// den nchsten Lauf einer Kampagne sofort wieder registrieren knnen
+		ArrayList<LoadDriverIF> closing;
+		synchronized (this)
+		{
+			closing = loaddrivers;
+			loaddrivers = new ArrayList<LoadDriverIF>();
+		}
+		for (LoadDriverIF loaddriver : closing)
 		{
 			loaddriver.close();
 		}
 	}
 
 	/**
-	 * Schliet den Benchmark.
+	 * Schliet den Benchmark. Folgt ein weiterer Lauf, bleibt die
+	 * RMI-Registry bestehen und die LoadDriver erhalten bei der erneuten
+	 * Registrierung die Konfiguration des nchsten Laufs. Bei bestehenden
+	 * LoadDrivern werden diese nicht geschlossen, sofern der nchste Lauf
+	 * ebenso viele bentigt.
 	 * 
 	 * @throws RemoteException
 	 * @throws SQLException
@@ -157,8 +257,61 @@ public class Benchmark extends UnicastRemoteObject implements BenchmarkIF
 	 */
 	protected void close() throws RemoteException, SQLException, NotBoundException
 	{
+		nextRun = nextConfig != null;
+		if (nextRun)
+		{
+			config = nextConfig;
+			nextConfig = null;
+			if (config.isPersistentLoadDrivers() && config.getLoadDrivers() == loaddrivers.size())
+				return;
+		}
 		closeLoadDrivers();
-		stopRegistry();
+		if (!nextRun)
+			stopRegistry();
+	}
+
+	/**
+	 * Gibt zurck, ob nach dem Schlieen der LoadDriver ein weiterer Lauf
+	 * folgt, fr den sich die LoadDriver erneut registrieren sollen. Das gilt
+	 * auch fr LoadDriver, die im aktuellen Lauf nicht bentigt werden.
+	 * 
+	 * @return Wahrheitswert
+	 * @throws RemoteException
+	 */
+	@Override
+	public boolean hasNextRun() throws RemoteException
+	{
+		return nextRun || nextConfig != null;
+	}
+
+	/**
+	 * Wartet, bis sich alle LoadDriver registriert haben und bereit sind.
+	 * Bestehende LoadDriver eines vorherigen Laufs werden zuvor mit der
+	 * aktuellen Konfiguration vorbereitet.
+	 * 
+	 * @throws Exception
+	 */
+	protected void awaitLoadDrivers() throws Exception
+	{
+		// Nicht mehr bentigte LoadDriver warten auf einen spteren Lauf
+		while (loaddrivers.size() > config.getLoadDrivers())
+		{
+			LoadDriverIF loaddriver;
+			synchronized (this)
+			{
+				loaddriver = loaddrivers.remove(loaddrivers.size() - 1);
+			}
+			loaddriver.close();
+		}
+		for (LoadDriverIF loaddriver : loaddrivers)
+		{
+			if (loaddriver.getStage() == STAGE.FINISHED)
+				loaddriver.prepare(config);
+		}
+		do
+		{
+			Thread.sleep(1000);
+		} while (!isInitiated());
 	}
 
 	/**
@@ -185,6 +338,20 @@ public class Benchmark extends UnicastRemoteObject implements BenchmarkIF
 		return remoteLogger;
 	}
 
+	/**
+	 * Gibt die Uhrzeit des Benchmark Controllers zurck. Sie wird einmal aus
+	 * der Systemzeit abgeleitet und danach mit System.nanoTime()
+	 * fortgeschrieben, damit nderungen der Systemzeit den Ablauf nicht stren.
+	 * 
+	 * @return Uhrzeit in ns seit 1970 (UTC)
+	 * @throws RemoteException
+	 */
+	@Override
+	public long getClock() throws RemoteException
+	{
+		return clockBase + System.nanoTime();
+	}
+
 	/**
 	 * Fhrt den Benchmark aus und gibt das Ergebnis zurck.
 	 * 
@@ -195,23 +362,23 @@ public class Benchmark extends UnicastRemoteObject implements BenchmarkIF
 	{
 		Result result = new Result(Configuration.BENCHMARK_NAME, config.getBenchmarkTime());
 		ExecutorService es = Executors.newCachedThreadPool();
-		ArrayList<Future<Result>> futures = new ArrayList<Future<Result>>();
-
-		setStage(STAGE.WARMUP);
-		log.info("Phase: WARMUP");
+		ArrayList<Future<Result>> futures = startLoadDrivers(es, config.getWarmUpTime(), config.getBenchmarkTime(),
+				config.getCoolDownTime());
 
-		for (LoadDriverIF loaddriver : loaddrivers)
+		reported = schedule.getStart(STAGE.WARMUP) / 1000000L;
+		violations = 0;
+		boolean aborted = await(schedule.getStart(STAGE.WARMUP));
+		for (STAGE stage : new STAGE[] { STAGE.WARMUP, STAGE.BENCHMARK, STAGE.COOLDOWN })
 		{
-			futures.add(es.submit(loaddriver));
+			if (aborted)
+				break;
+			this.stage = stage;
+			log.info("Phase: " + stage);
+			if (stage == STAGE.WARMUP && config.isAdaptiveWarmUp())
+				aborted = awaitSteadyState();
+			else
+				aborted = await(schedule.getStart(STAGE.values()[stage.ordinal() + 1]));
 		}
-
-		Thread.sleep(config.getWarmUpTime() * 1000);
-		setStage(STAGE.BENCHMARK);
-		log.info("Phase: BENCHMARK");
-		Thread.sleep(config.getBenchmarkTime() * 1000);
-		setStage(STAGE.COOLDOWN);
-		log.info("Phase: COOLDOWN");
-		Thread.sleep(config.getCoolDownTime() * 1000);
 		setStage(STAGE.FINISHED);
 		log.info("Phase: FINISHED");
 
@@ -222,7 +389,17 @@ public class Benchmark extends UnicastRemoteObject implements BenchmarkIF
 		log.info("Erfolgreiche Transaktionen: " + result.getSuccessfullTransactions());
 		log.info("Fehlgeschlagene Transaktionen: " + result.getFailedTransactions());
 		log.info("Durschnittsdauer einer Transaktion in ms: " + result.getAverageDuration());
-		log.info("Transaktionen pro Sekunde: " + result.getTransactionsPerSecond());
+		log.info("Dauer einer Transaktion in ms (p50/p99/p99.9/max): " + result.getPercentileDuration(50) + " / "
+				+ result.getPercentileDuration(99) + " / " + result.getPercentileDuration(99.9) + " / " + result.getMaxDuration());
+		log.info("Transaktionen pro Sekunde: " + result.getThroughput());
+		log.info("Wiederholungen: " + result.getRetries());
+		traceDirectory = null;
+		if (!config.getTraceDirectory().isEmpty())
+		{
+			traceDirectory = TraceRecorder.getRunDirectory(config.getTraceDirectory(), schedule.getStart(STAGE.WARMUP)).getPath();
+			log.info("Trace-Dateien: " + traceDirectory);
+		}
+		writeTimeSeries(result);
 
 		es.shutdown();
 		close();
@@ -230,6 +407,278 @@ public class Benchmark extends UnicastRemoteObject implements BenchmarkIF
 		return result;
 	}
 
+	/**
+	 * Verteilt einen neuen Ablaufplan an alle LoadDriver und startet sie.
+	 * Alle LoadDriver erhalten denselben Ablaufplan mit etwas Vorlauf, damit
+	 * sie ihn vor dem Beginn der Phase WARMUP kennen. Der Beginn wird an den
+	 * Intervallen der Zeitreihe ausgerichtet.
+	 * 
+	 * @param es ExecutorService fr die Aufrufe der LoadDriver
+	 * @param warmup Dauer der Phase WARMUP in s
+	 * @param benchmark Dauer der Phase BENCHMARK in s
+	 * @param cooldown Dauer der Phase COOLDOWN in s
+	 * @return Ergebnisse der LoadDriver
+	 * @throws RemoteException
+	 */
+	protected ArrayList<Future<Result>> startLoadDrivers(ExecutorService es, int warmup, int benchmark, int cooldown)
+			throws RemoteException
+	{
+		int interval = config.getTimeSeriesInterval();
+		long start = getClock() / 1000000L + config.getScheduleLead() + interval - 1;
+		start -= start % interval;
+		schedule = PhaseSchedule.create(start * 1000000L, warmup, benchmark, cooldown);
+		log.fine("Ablaufplan: " + schedule);
+		for (LoadDriverIF loaddriver : loaddrivers)
+		{
+			loaddriver.setSchedule(schedule);
+		}
+
+		ArrayList<Future<Result>> futures = new ArrayList<Future<Result>>();
+		for (LoadDriverIF loaddriver : loaddrivers)
+		{
+			futures.add(es.submit(loaddriver));
+		}
+		return futures;
+	}
+
+	/**
+	 * Wartet bis zu einem Zeitpunkt des Ablaufplans und gibt dabei regelmig
+	 * ein Zwischenergebnis aus.
+	 * 
+	 * @param until Zeitpunkt in ns (Uhr des Controllers)
+	 * @return true, falls der Benchmark wegen eines Zusammenbruchs
+	 *         abgebrochen werden soll
+	 * @throws Exception
+	 */
+	protected boolean await(long until) throws Exception
+	{
+		long end = until / 1000000L;
+		long reportInterval = config.getReportInterval() * 1000L;
+		long now;
+		while ((now = getClock() / 1000000L) < end)
+		{
+			if (reportInterval <= 0)
+			{
+				Thread.sleep(end - now);
+				continue;
+			}
+
+			int interval = config.getTimeSeriesInterval();
+			long next = reported + Math.max(reportInterval, interval) + interval;
+			if (now < next)
+			{
+				Thread.sleep(Math.min(end, next) - now);
+				continue;
+			}
+			if (reportInterimResult())
+			{
+				log.warning("Der Benchmark wird vorzeitig abgebrochen.");
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Wartet whrend der Phase WARMUP, bis Durchsatz und mittlere Dauer der
+	 * Transaktionen stationr sind, jedoch mindestens warmup.min Sekunden und
+	 * hchstens warmup.time Sekunden. Stationr ist der Zustand, wenn der
+	 * Variationskoeffizient beider Gren ber die letzten warmup.window
+	 * abgeschlossenen Intervalle der Zeitreihe unter warmup.cv liegt. Die
+	 * folgenden Phasen werden dann vorgezogen und allen LoadDrivern als neuer
+	 * Ablaufplan mitgeteilt.
+	 * 
+	 * @return true, falls der Benchmark wegen eines Zusammenbruchs
+	 *         abgebrochen werden soll
+	 * @throws Exception
+	 */
+	protected boolean awaitSteadyState() throws Exception
+	{
+		int interval = config.getTimeSeriesInterval();
+		int window = config.getWarmUpWindow();
+		long warmupStart = schedule.getStart(STAGE.WARMUP) / 1000000L;
+		long earliest = warmupStart + config.getWarmUpMin() * 1000L;
+
+		while (true)
+		{
+			// Geprft wird jeweils ein Intervall nach dem Ende eines
+			// Intervalls, damit die Worker es abschlieen konnten
+			long now = getClock() / 1000000L;
+			long to = Math.max(now - now % interval, earliest - earliest % interval);
+			long latest = schedule.getStart(STAGE.BENCHMARK) / 1000000L;
+			if (to + interval >= latest)
+				break;
+			if (await((to + interval) * 1000000L))
+				return true;
+
+			long from = to - window * (long) interval;
+			if (from < warmupStart)
+				continue;
+			TimeSeries timeSeries = new TimeSeries(interval);
+			for (LoadDriverIF loaddriver : loaddrivers)
+			{
+				timeSeries.add(loaddriver.getInterimResult(from));
+			}
+			double cv = getCoefficientOfVariation(timeSeries, from, to);
+			log.fine("Variationskoeffizient der Aufwrmphase: " + cv);
+			if (cv < config.getWarmUpCV())
+			{
+				long start = getClock() / 1000000L + config.getScheduleLead() + interval - 1;
+				start -= start % interval;
+				if (start >= latest)
+					break;
+				long benchmark = schedule.getStart(STAGE.COOLDOWN) - schedule.getStart(STAGE.BENCHMARK);
+				long cooldown = schedule.getStart(STAGE.FINISHED) - schedule.getStart(STAGE.COOLDOWN);
+				schedule = new PhaseSchedule(schedule.getStart(STAGE.WARMUP), start * 1000000L,
+						start * 1000000L + benchmark, start * 1000000L + benchmark + cooldown);
+				log.fine("Ablaufplan: " + schedule);
+				for (LoadDriverIF loaddriver : loaddrivers)
+				{
+					loaddriver.setSchedule(schedule);
+				}
+				log.info(String.format("Stationrer Zustand erreicht (Variationskoeffizient %.4f), Dauer der Aufwrmphase: %.1f s",
+						cv, (start - warmupStart) / 1000.0));
+				return await(schedule.getStart(STAGE.BENCHMARK));
+			}
+		}
+
+		log.warning(String.format("Kein stationrer Zustand erreicht, Dauer der Aufwrmphase: %.1f s",
+				(schedule.getStart(STAGE.BENCHMARK) / 1000000L - warmupStart) / 1000.0));
+		return await(schedule.getStart(STAGE.BENCHMARK));
+	}
+
+	/**
+	 * Berechnet den greren der Variationskoeffizienten von Durchsatz und
+	 * mittlerer Dauer der Transaktionen ber die Intervalle eines Zeitraums.
+	 * Intervalle ohne abgeschlossene Transaktionen zhlen mit dem Durchsatz 0.
+	 * 
+	 * @param timeSeries Zeitreihe aller LoadDriver
+	 * @param from Beginn des Zeitraums in ms seit 1970 (UTC)
+	 * @param to Ende des Zeitraums (exklusiv) in ms seit 1970 (UTC)
+	 * @return Variationskoeffizient
+	 */
+	protected double getCoefficientOfVariation(TimeSeries timeSeries, long from, long to)
+	{
+		int interval = timeSeries.getInterval();
+		int n = (int) ((to - from) / interval);
+		double[] commits = new double[n];
+		double[] latencies = new double[n];
+		for (int i = 0; i < n; i++)
+		{
+			TimeSeriesBucket bucket = timeSeries.summarize(from + i * (long) interval, from + (i + 1) * (long) interval);
+			if (bucket != null)
+			{
+				commits[i] = bucket.getCommits();
+				latencies[i] = bucket.getLatencies().getMean();
+			}
+		}
+		return Math.max(getCoefficientOfVariation(commits), getCoefficientOfVariation(latencies));
+	}
+
+	/**
+	 * Berechnet den Variationskoeffizienten (Standardabweichung durch
+	 * Mittelwert) einer Messreihe.
+	 * 
+	 * @param values Messwerte
+	 * @return Variationskoeffizient oder unendlich, falls der Mittelwert 0 ist
+	 */
+	protected static double getCoefficientOfVariation(double[] values)
+	{
+		double sum = 0;
+		for (double value : values)
+		{
+			sum += value;
+		}
+		double mean = sum / values.length;
+		if (mean <= 0)
+			return Double.POSITIVE_INFINITY;
+
+		double squares = 0;
+		for (double value : values)
+		{
+			squares += (value - mean) * (value - mean);
+		}
+		return Math.sqrt(squares / (values.length - 1)) / mean;
+	}
+
+	/**
+	 * Fragt die Zwischenergebnisse aller LoadDriver ab und gibt Durchsatz und
+	 * 99. Perzentil der Transaktionsdauer seit dem letzten Zwischenergebnis
+	 * aus. Bercksichtigt werden nur Intervalle, die seit mindestens einem
+	 * Intervall beendet sind, damit die Worker sie abschlieen konnten.
+	 * 
+	 * @return true, falls die konfigurierte Anzahl von Zwischenergebnissen
+	 *         in Folge als Zusammenbruch gewertet wurde
+	 * @throws RemoteException
+	 */
+	protected boolean reportInterimResult() throws RemoteException
+	{
+		int interval = config.getTimeSeriesInterval();
+		long now = getClock() / 1000000L;
+		long to = now - now % interval - interval;
+		if (to <= reported)
+			return false;
+
+		TimeSeries timeSeries = new TimeSeries(interval);
+		for (LoadDriverIF loaddriver : loaddrivers)
+		{
+			timeSeries.add(loaddriver.getInterimResult(reported));
+		}
+		TimeSeriesBucket summary = timeSeries.summarize(reported, to);
+		double seconds = (to - reported) / 1000.0;
+		reported = to;
+
+		STAGE windowStage = summary != null ? summary.getStage() : stage;
+		long commits = summary != null ? summary.getCommits() : 0;
+		double tps = commits / seconds;
+		double p99 = summary != null ? summary.getLatencies().getValueAtPercentile(99) / 1000000.0 : 0;
+		String line = String.format("[%s] %.1f TPS, p99 %.3f ms, fehlgeschlagen %d, Wiederholungen %d", windowStage, tps, p99,
+				summary != null ? summary.getFailures() : 0, summary != null ? summary.getRetries() : 0);
+		System.out.println(line);
+		log.info("Zwischenergebnis: " + line);
+
+		// Die Ausschwingphase wird nicht berwacht, da sie ohnehin endet
+		if (windowStage == STAGE.COOLDOWN)
+			return false;
+		boolean collapsed = (config.getAbortTPS() > 0 && tps < config.getAbortTPS())
+				|| (config.getAbortP99() > 0 && (commits == 0 || p99 > config.getAbortP99()));
+		violations = collapsed ? violations + 1 : 0;
+		return violations >= config.getAbortReports();
+	}
+
+	/**
+	 * Schreibt die Zeitreihen des Benchmarks und der einzelnen LoadDriver als
+	 * CSV-Datei in das Log-Verzeichnis. Die Zeit wird in Sekunden ab dem
+	 * ersten Intervall angegeben.
+	 * 
+	 * @param result Ergebnis des Benchmarks
+	 * @throws IOException
+	 */
+	protected void writeTimeSeries(Result result) throws IOException
+	{
+		TimeSeries timeSeries = result.getTimeSeries();
+		if (timeSeries == null || timeSeries.getBuckets().isEmpty())
+			return;
+
+		String fileName = "logs/timeseries_" + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()) + ".csv";
+		long origin = timeSeries.getBuckets().get(0).getStart();
+		PrintWriter out = new PrintWriter(new FileWriter(fileName));
+		try
+		{
+			out.println(TimeSeries.getCSVHeader());
+			timeSeries.writeCSV(out, result.getName(), origin);
+			for (Result subResult : result.getSubResults())
+			{
+				if (subResult.getTimeSeries() != null)
+					subResult.getTimeSeries().writeCSV(out, subResult.getName(), origin);
+			}
+		} finally
+		{
+			out.close();
+		}
+		log.info("Zeitreihe geschrieben: " + fileName);
+	}
+
 	/**
 	 * Legt die aktuelle Phase fest.
 	 * 
@@ -238,6 +687,7 @@ public class Benchmark extends UnicastRemoteObject implements BenchmarkIF
 	 */
 	protected void setStage(STAGE stage) throws RemoteException
 	{
+		this.stage = stage;
 		for (LoadDriverIF loaddriver : loaddrivers)
 		{
 			loaddriver.setStage(stage);
@@ -253,17 +703,50 @@ public class Benchmark extends UnicastRemoteObject implements BenchmarkIF
 	{
 		try
 		{
-			Benchmark benchmark = new Benchmark();
+			Configuration config = loadConfiguration();
+			if (!config.getCampaignFile().isEmpty())
+			{
+				new Campaign(config).run();
+				return;
+			}
+			Benchmark benchmark = new Benchmark(config);
 			System.out.println("Der Benchmark Controller wurde gestartet.");
 			System.out.println("Die Load Driver knnen jetzt auch gestartet werden!");
-			do
+			benchmark.awaitLoadDrivers();
+			if (benchmark.config.getSaturationSLO() > 0)
+			{
+				System.out.println("Die Suche nach der maximalen Last wird gestartet.");
+				new SaturationSearch(benchmark).run();
+				return;
+			}
+			while (true)
 			{
-				Thread.sleep(1000);
-			} while (!benchmark.isInitiated());
-			System.out.println("Der Benchmark-Lauf wird gestartet.");
-			Result result = benchmark.run();
-			System.out.println("Der Benchmark-Lauf wurde ausgefhrt.\n");
-			printResult(result);
+				// Bestehende LoadDriver bleiben nach dem Lauf registriert, bis
+				// feststeht, ob ein weiterer Lauf folgt
+				if (benchmark.config.isPersistentLoadDrivers())
+					benchmark.nextConfig = benchmark.config;
+				System.out.println("Der Benchmark-Lauf wird gestartet.");
+				Result result = benchmark.run();
+				System.out.println("Der Benchmark-Lauf wurde ausgefhrt.\n");
+				printResult(result);
+				printTransactionSummary(result);
+				if (!benchmark.config.isPersistentLoadDrivers())
+					break;
+
+				System.out.println("\nEnter startet einen weiteren Lauf mit der neu geladenen Konfiguration, q beendet den Benchmark.");
+				String command = new BufferedReader(new InputStreamReader(System.in)).readLine();
+				if (command == null || command.trim().equalsIgnoreCase("q"))
+				{
+					benchmark.close();
+					break;
+				}
+				benchmark.config = loadConfiguration();
+				if (benchmark.config.getRandomSeed() == null)
+					benchmark.config.setRandomSeed(new Random().nextLong());
+				benchmark.config.logBenchmarkConfiguration(benchmark.log);
+				benchmark.config.logTransactionConfiguration(benchmark.log);
+				benchmark.awaitLoadDrivers();
+			}
 		} catch (Exception e)
 		{
 			e.printStackTrace();
@@ -278,8 +761,10 @@ public class Benchmark extends UnicastRemoteObject implements BenchmarkIF
 		System.out.printf("%sName: %s\n", tab, result.getName());
 		System.out.printf("%sErfolgreiche Transaktionen: %d\n", tab, result.getSuccessfullTransactions());
 		System.out.printf("%sFehlgeschlagene Transaktionen: %d\n", tab, result.getFailedTransactions());
-		System.out.printf("%sTransaktionen pro Sekunde: %d\n", tab, result.getTransactionsPerSecond());
+		System.out.printf("%sTransaktionen pro Sekunde: %.2f\n", tab, result.getThroughput());
 		System.out.printf("%sDurchschnittsdauer einer Transaktion: %f ms\n", tab, result.getAverageDuration());
+		printPercentiles(result);
+		printRetries(result);
 		tab += "\t";
 		for (Result subResult : result.getSubResults())
 		{
@@ -288,4 +773,49 @@ public class Benchmark extends UnicastRemoteObject implements BenchmarkIF
 		tab = tab.substring(1);
 	}
 
+	protected static void printPercentiles(Result result)
+	{
+		System.out.printf("%sDauer einer Transaktion: p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms\n", tab,
+				result.getPercentileDuration(50), result.getPercentileDuration(90), result.getPercentileDuration(99),
+				result.getPercentileDuration(99.9), result.getMaxDuration());
+	}
+
+	protected static void printRetries(Result result)
+	{
+		Histogram retries = result.getRetriesPerCommit();
+		System.out.printf("%sWiederholungen: %d (je erfolgreicher Transaktion: Mittel %.3f, p99 %d, max %d)\n", tab,
+				result.getRetries(), retries.getMean(), retries.getValueAtPercentile(99), retries.getMax());
+	}
+
+	/**
+	 * Gibt die Ergebnisse je Transaktion ber alle LoadDriver zusammengefasst aus.
+	 * 
+	 * @param result Ergebnis des Benchmarks
+	 */
+	protected static void printTransactionSummary(Result result)
+	{
+		LinkedHashMap<String, Result> transactions = new LinkedHashMap<String, Result>();
+		for (Result loadDriverResult : result.getSubResults())
+		{
+			for (Result subResult : loadDriverResult.getSubResults())
+			{
+				Result transaction = transactions.get(subResult.getName());
+				if (transaction == null)
+				{
+					transaction = new Result(subResult.getName(), result.getBenchmarkTime());
+					transactions.put(subResult.getName(), transaction);
+				}
+				transaction.merge(subResult);
+			}
+		}
+
+		System.out.println("\nTransaktionen ber alle LoadDriver:");
+		tab += "\t";
+		for (Result transaction : transactions.values())
+		{
+			printResult(transaction);
+		}
+		tab = tab.substring(1);
+	}
+
 }
@@ -46,4 +46,23 @@ public interface BenchmarkIF extends Remote
 	 * @throws RemoteException
 	 */
 	public RemoteLoggerIF getRemoteLogger() throws RemoteException;
+
+	/**
+	 * Gibt zurck, ob nach dem Schlieen der LoadDriver ein weiterer Lauf
+	 * einer Kampagne folgt, fr den sich die LoadDriver erneut registrieren
+	 * sollen.
+	 * 
+	 * @return Wahrheitswert
+	 * @throws RemoteException
+	 */
+	public boolean hasNextRun() throws RemoteException;
+
+	/**
+	 * Gibt die Uhrzeit des Benchmark Controllers zurck. Die LoadDriver
+	 * schtzen damit den Abstand ihrer Uhr zur Uhr des Controllers.
+	 * 
+	 * @return Uhrzeit in ns seit 1970 (UTC)
+	 * @throws RemoteException
+	 */
+	public long getClock() throws RemoteException;
 }
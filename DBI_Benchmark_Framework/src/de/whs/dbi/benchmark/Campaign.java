@@ -0,0 +1,484 @@
+package de.whs.dbi.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+import de.whs.dbi.util.Configuration;
+import de.whs.dbi.util.Result;
+
+/**
+ * Eine Campaign fhrt mehrere Benchmark-Lufe mit unterschiedlichen
+ * Einstellungen nacheinander aus und vergleicht die Ergebnisse. Die
+ * LoadDriver registrieren sich nach jedem Lauf erneut und erhalten dabei die
+ * Konfiguration des nchsten Laufs, sodass weder Controller noch LoadDriver
+ * neu gestartet werden mssen.
+ * 
+ * Die Kampagne wird in einer XML-Datei im Format der brigen
+ * Konfigurationsdateien beschrieben:
+ * <ul>
+ * <li>"sweep.&lt;Schlssel&gt;": durch "|" getrennte Werte einer Einstellung;
+ * es werden alle Kombinationen der Werte ausgefhrt (kartesisches Produkt)</li>
+ * <li>"run.&lt;Nummer&gt;": eine explizite Liste von Punkten, jeweils
+ * "Schlssel=Wert"-Paare getrennt durch ";"; jeder Punkt der Liste wird mit
+ * jeder Kombination der sweep-Eintrge kombiniert</li>
+ * <li>"repetitions": Anzahl der Wiederholungen je Punkt</li>
+ * </ul>
+ * Die Schlssel sind die der Benchmark-Konfiguration, mit dem Prfix
+ * "transaction." die des Lastprofils.
+ * 
+ * Die Wiederholungen werden reihum ausgefhrt, damit sich eine Drift der
+ * Datenbank (z. B. wachsende Tabellen) gleichmig auf alle Punkte verteilt.
+ * Fr jeden Punkt werden Mittelwert und 95-%-Konfidenzintervall von
+ * Durchsatz, Perzentilen der Transaktionsdauer, Fehlschlgen und
+ * Wiederholungen als CSV- und JSON-Datei in das Log-Verzeichnis geschrieben.
+ * Werden die Transaktionen aufgezeichnet (trace.dir), enthalten beide Dateien
+ * auerdem das Verzeichnis der Trace-Dateien jedes Laufs.
+ */
+public class Campaign
+{
+	/**
+	 * Schlssel fr die Anzahl der Wiederholungen je Punkt
+	 */
+	public final static String REPETITIONS = "repetitions";
+
+	/**
+	 * Prfix der Schlssel, deren Werte variiert werden
+	 */
+	public final static String SWEEP_PREFIX = "sweep.";
+
+	/**
+	 * Prfix der Schlssel fr explizit aufgefhrte Punkte
+	 */
+	public final static String RUN_PREFIX = "run.";
+
+	/**
+	 * Namen der verglichenen Kennzahlen
+	 */
+	public final static String[] METRICS = { "tps", "p50_ms", "p99_ms", "p999_ms", "failed", "retries" };
+
+	/**
+	 * 97,5-%-Quantile der t-Verteilung fr 1 bis 30 Freiheitsgrade
+	 */
+	protected final static double[] T_QUANTILES = { 12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+			2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086, 2.080, 2.074, 2.069, 2.064, 2.060, 2.056,
+			2.052, 2.048, 2.045, 2.042 };
+
+	protected Configuration base;
+	protected int repetitions;
+
+	/**
+	 * berschriebene Einstellungen je Punkt
+	 */
+	protected ArrayList<LinkedHashMap<String, String>> points = new ArrayList<LinkedHashMap<String, String>>();
+
+	/**
+	 * Alle berschriebenen Schlssel in der Reihenfolge ihres Auftretens
+	 */
+	protected ArrayList<String> keys = new ArrayList<String>();
+
+	/**
+	 * Ergebnisse der Lufe je Punkt
+	 */
+	protected ArrayList<ArrayList<Result>> results = new ArrayList<ArrayList<Result>>();
+
+	/**
+	 * Verzeichnisse der Trace-Dateien der Lufe je Punkt (null, falls keine
+	 * Transaktionen aufgezeichnet wurden)
+	 */
+	protected ArrayList<ArrayList<String>> traces = new ArrayList<ArrayList<String>>();
+
+	/**
+	 * Der Konstruktor ldt die Definition der Kampagne.
+	 * 
+	 * @param base Konfiguration, deren Einstellungen berschrieben werden
+	 * @throws IOException
+	 */
+	public Campaign(Configuration base) throws IOException
+	{
+		this.base = base;
+
+		Properties definition = new Properties();
+		InputStream in = new FileInputStream(new File(base.getCampaignFile()));
+		try
+		{
+			definition.loadFromXML(in);
+		} finally
+		{
+			in.close();
+		}
+		load(definition);
+	}
+
+	/**
+	 * Bildet die Punkte der Kampagne aus der Definition.
+	 * 
+	 * @param definition Definition der Kampagne
+	 */
+	protected void load(Properties definition)
+	{
+		repetitions = Integer.parseInt(definition.getProperty(REPETITIONS, "1").trim());
+		if (repetitions < 1)
+		{
+			throw new IllegalArgumentException("Ungltige Anzahl der Wiederholungen: " + repetitions);
+		}
+
+		// Explizit aufgefhrte Punkte in der Reihenfolge ihrer Nummern
+		ArrayList<String> runs = new ArrayList<String>();
+		ArrayList<String> sweeps = new ArrayList<String>();
+		for (String key : definition.stringPropertyNames())
+		{
+			if (key.startsWith(RUN_PREFIX))
+				runs.add(key);
+			else if (key.startsWith(SWEEP_PREFIX))
+				sweeps.add(key);
+		}
+		Collections.sort(runs, new Comparator<String>()
+		{
+			@Override
+			public int compare(String a, String b)
+			{
+				return Integer.parseInt(a.substring(RUN_PREFIX.length())) - Integer.parseInt(b.substring(RUN_PREFIX.length()));
+			}
+		});
+		Collections.sort(sweeps);
+
+		points.add(new LinkedHashMap<String, String>());
+		if (!runs.isEmpty())
+		{
+			points.clear();
+			for (String run : runs)
+			{
+				LinkedHashMap<String, String> point = new LinkedHashMap<String, String>();
+				for (String assignment : definition.getProperty(run).split(";"))
+				{
+					if (assignment.trim().isEmpty())
+						continue;
+					int separator = assignment.indexOf('=');
+					if (separator < 0)
+					{
+						throw new IllegalArgumentException("Ungltige Einstellung in " + run + ": " + assignment);
+					}
+					putKey(point, assignment.substring(0, separator).trim(), assignment.substring(separator + 1).trim());
+				}
+				points.add(point);
+			}
+		}
+
+		// Kartesisches Produkt mit den variierten Einstellungen
+		for (String sweep : sweeps)
+		{
+			String key = sweep.substring(SWEEP_PREFIX.length());
+			ArrayList<LinkedHashMap<String, String>> product = new ArrayList<LinkedHashMap<String, String>>();
+			for (LinkedHashMap<String, String> point : points)
+			{
+				for (String value : definition.getProperty(sweep).split("\\|"))
+				{
+					LinkedHashMap<String, String> combined = new LinkedHashMap<String, String>(point);
+					putKey(combined, key, value.trim());
+					product.add(combined);
+				}
+			}
+			points = product;
+		}
+
+		for (int i = 0; i < points.size(); i++)
+		{
+			results.add(new ArrayList<Result>());
+			traces.add(new ArrayList<String>());
+		}
+	}
+
+	protected void putKey(Map<String, String> point, String key, String value)
+	{
+		point.put(key, value);
+		if (!keys.contains(key))
+			keys.add(key);
+	}
+
+	/**
+	 * Fhrt alle Lufe der Kampagne aus und schreibt den Vergleich der
+	 * Ergebnisse.
+	 * 
+	 * @throws Exception
+	 */
+	public void run() throws Exception
+	{
+		Random random = new Random();
+		ArrayList<Configuration> configs = new ArrayList<Configuration>();
+		ArrayList<Integer> pointOfRun = new ArrayList<Integer>();
+		for (int repetition = 0; repetition < repetitions; repetition++)
+		{
+			for (int i = 0; i < points.size(); i++)
+			{
+				Configuration config = new Configuration(base);
+				for (Map.Entry<String, String> override : points.get(i).entrySet())
+				{
+					config.override(override.getKey(), override.getValue());
+				}
+				// Jede Wiederholung erhlt einen eigenen Startwert, sofern
+				// die Kampagne keinen festlegt
+				if (config.getRandomSeed() == null)
+					config.setRandomSeed(random.nextLong());
+				configs.add(config);
+				pointOfRun.add(i);
+			}
+		}
+
+		Benchmark benchmark = new Benchmark(configs.get(0));
+		System.out.println("Der Benchmark Controller wurde gestartet.");
+		System.out.printf("Kampagne mit %d Punkten und %d Wiederholungen (%d Lufe)\n", points.size(), repetitions, configs.size());
+		System.out.println("Die Load Driver knnen jetzt auch gestartet werden!");
+
+		for (int i = 0; i < configs.size(); i++)
+		{
+			int point = pointOfRun.get(i);
+			benchmark.nextConfig = i + 1 < configs.size() ? configs.get(i + 1) : null;
+			benchmark.awaitLoadDrivers();
+
+			String line = String.format("Lauf %d von %d: %s", i + 1, configs.size(), describe(points.get(point)));
+			System.out.println(line);
+			benchmark.log.info(line);
+			if (i > 0)
+			{
+				benchmark.config.logBenchmarkConfiguration(benchmark.log);
+				benchmark.config.logTransactionConfiguration(benchmark.log);
+			}
+
+			Result result = benchmark.run();
+			results.get(point).add(result);
+			traces.get(point).add(benchmark.traceDirectory);
+			System.out.printf(Locale.ROOT, "\t%.2f TPS, p99 %.3f ms, fehlgeschlagen %d\n", result.getThroughput(),
+					result.getPercentileDuration(99), result.getFailedTransactions());
+			if (benchmark.traceDirectory != null)
+				System.out.println("\tTrace-Dateien: " + benchmark.traceDirectory);
+		}
+
+		String fileName = "logs/campaign_" + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+		writeCSV(fileName + ".csv");
+		writeJSON(fileName + ".json");
+		benchmark.log.info("Vergleich geschrieben: " + fileName + ".csv, " + fileName + ".json");
+		printComparison();
+	}
+
+	/**
+	 * Gibt die Kennzahlen eines Laufs in der Reihenfolge von {@link #METRICS}
+	 * zurck.
+	 * 
+	 * @param result Ergebnis des Laufs
+	 * @return Kennzahlen
+	 */
+	protected static double[] getMetrics(Result result)
+	{
+		return new double[] { result.getThroughput(), result.getPercentileDuration(50), result.getPercentileDuration(99),
+				result.getPercentileDuration(99.9), result.getFailedTransactions(), result.getRetries() };
+	}
+
+	/**
+	 * Berechnet Mittelwert und halbe Breite des 95-%-Konfidenzintervalls
+	 * einer Kennzahl ber die Lufe eines Punktes.
+	 * 
+	 * @param point Index des Punktes
+	 * @param metric Index der Kennzahl
+	 * @return Mittelwert und halbe Breite (NaN bei weniger als zwei Lufen)
+	 */
+	protected double[] getStatistics(int point, int metric)
+	{
+		ArrayList<Result> runs = results.get(point);
+		int n = runs.size();
+		double sum = 0;
+		for (Result result : runs)
+		{
+			sum += getMetrics(result)[metric];
+		}
+		double mean = n > 0 ? sum / n : Double.NaN;
+		if (n < 2)
+			return new double[] { mean, Double.NaN };
+
+		double squares = 0;
+		for (Result result : runs)
+		{
+			double value = getMetrics(result)[metric];
+			squares += (value - mean) * (value - mean);
+		}
+		double t = n - 1 <= T_QUANTILES.length ? T_QUANTILES[n - 2] : 1.96;
+		return new double[] { mean, t * Math.sqrt(squares / (n - 1) / n) };
+	}
+
+	/**
+	 * Schreibt den Vergleich der Punkte als CSV-Datei.
+	 * 
+	 * @param fileName Dateiname
+	 * @throws IOException
+	 */
+	protected void writeCSV(String fileName) throws IOException
+	{
+		PrintWriter out = new PrintWriter(new FileWriter(fileName));
+		try
+		{
+			out.print("point");
+			for (String key : keys)
+			{
+				out.print(";" + key);
+			}
+			out.print(";runs");
+			for (String metric : METRICS)
+			{
+				out.print(";" + metric + "_mean;" + metric + "_ci95");
+			}
+			out.println(";traces");
+
+			for (int i = 0; i < points.size(); i++)
+			{
+				out.print(i + 1);
+				for (String key : keys)
+				{
+					String value = points.get(i).get(key);
+					out.print(";" + (value != null ? value : ""));
+				}
+				out.print(";" + results.get(i).size());
+				for (int metric = 0; metric < METRICS.length; metric++)
+				{
+					double[] statistics = getStatistics(i, metric);
+					out.print(";" + format(statistics[0]) + ";" + format(statistics[1]));
+				}
+				StringBuilder directories = new StringBuilder();
+				for (String trace : traces.get(i))
+				{
+					if (trace != null)
+						directories.append(directories.length() > 0 ? "|" : "").append(trace);
+				}
+				out.println(";" + directories);
+			}
+		} finally
+		{
+			out.close();
+		}
+	}
+
+	/**
+	 * Schreibt den Vergleich der Punkte mitsamt den Kennzahlen der einzelnen
+	 * Lufe als JSON-Datei.
+	 * 
+	 * @param fileName Dateiname
+	 * @throws IOException
+	 */
+	protected void writeJSON(String fileName) throws IOException
+	{
+		PrintWriter out = new PrintWriter(new FileWriter(fileName));
+		try
+		{
+			out.println("{");
+			out.println("  \"repetitions\": " + repetitions + ",");
+			out.println("  \"points\": [");
+			for (int i = 0; i < points.size(); i++)
+			{
+				out.println("    {");
+				out.print("      \"overrides\": {");
+				String separator = "";
+				for (Map.Entry<String, String> override : points.get(i).entrySet())
+				{
+					out.print(separator + quote(override.getKey()) + ": " + quote(override.getValue()));
+					separator = ", ";
+				}
+				out.println("},");
+				for (int metric = 0; metric < METRICS.length; metric++)
+				{
+					double[] statistics = getStatistics(i, metric);
+					out.println("      " + quote(METRICS[metric]) + ": {\"mean\": " + json(statistics[0]) + ", \"ci95\": "
+							+ json(statistics[1]) + "},");
+				}
+				out.println("      \"runs\": [");
+				ArrayList<Result> runs = results.get(i);
+				for (int run = 0; run < runs.size(); run++)
+				{
+					double[] metrics = getMetrics(runs.get(run));
+					out.print("        {");
+					for (int metric = 0; metric < METRICS.length; metric++)
+					{
+						out.print((metric > 0 ? ", " : "") + quote(METRICS[metric]) + ": " + json(metrics[metric]));
+					}
+					String trace = traces.get(i).get(run);
+					if (trace != null)
+						out.print(", \"trace\": " + quote(trace));
+					out.println(run + 1 < runs.size() ? "}," : "}");
+				}
+				out.println("      ]");
+				out.println(i + 1 < points.size() ? "    }," : "    }");
+			}
+			out.println("  ]");
+			out.println("}");
+		} finally
+		{
+			out.close();
+		}
+	}
+
+	/**
+	 * Gibt den Vergleich der Punkte auf der Konsole aus.
+	 */
+	protected void printComparison()
+	{
+		System.out.println("\nVergleich (Mittelwert +/- 95-%-Konfidenzintervall):");
+		for (int i = 0; i < points.size(); i++)
+		{
+			double[] tps = getStatistics(i, 0);
+			double[] p99 = getStatistics(i, 2);
+			System.out.printf(Locale.ROOT, "\t%d: %s\n\t\t%.2f +/- %.2f TPS, p99 %.3f +/- %.3f ms\n", i + 1,
+					describe(points.get(i)), tps[0], tps[1], p99[0], p99[1]);
+		}
+	}
+
+	protected static String describe(Map<String, String> point)
+	{
+		if (point.isEmpty())
+			return "Ausgangskonfiguration";
+		StringBuilder description = new StringBuilder();
+		for (Map.Entry<String, String> override : point.entrySet())
+		{
+			if (description.length() > 0)
+				description.append(", ");
+			description.append(override.getKey()).append('=').append(override.getValue());
+		}
+		return description.toString();
+	}
+
+	protected static String format(double value)
+	{
+		return Double.isNaN(value) ? "" : String.format(Locale.ROOT, "%.3f", value);
+	}
+
+	protected static String json(double value)
+	{
+		return Double.isNaN(value) || Double.isInfinite(value) ? "null" : String.format(Locale.ROOT, "%.3f", value);
+	}
+
+	protected static String quote(String value)
+	{
+		StringBuilder quoted = new StringBuilder("\"");
+		for (char c : value.toCharArray())
+		{
+			if (c == '"' || c == '\\')
+				quoted.append('\\').append(c);
+			else if (c < 0x20)
+				quoted.append(String.format("\\u%04x", (int) c));
+			else
+				quoted.append(c);
+		}
+		return quoted.append('"').toString();
+	}
+
+}
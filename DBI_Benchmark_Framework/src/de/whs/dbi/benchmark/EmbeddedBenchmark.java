@@ -0,0 +1,115 @@
+package de.whs.dbi.benchmark;
+
+import java.rmi.NoSuchObjectException;
+import java.rmi.server.UnicastRemoteObject;
+
+import de.whs.dbi.loaddriver.LoadDriver;
+import de.whs.dbi.util.Configuration;
+import de.whs.dbi.util.Result;
+
+/**
+ * EmbeddedBenchmark fhrt den Benchmark Controller und alle LoadDriver in
+ * einer JVM aus. Controller, LoadDriver und Remote Logger rufen sich ber
+ * ihre Schnittstellen direkt auf, sodass weder RMI-Registry noch RMI.xml
+ * noch eigene Prozesse fr die LoadDriver bentigt werden.
+ * 
+ * Die Klasse lsst sich auch als Bibliothek verwenden, z. B. aus Tests oder
+ * JMH-Benchmarks:
+ * 
+ * <pre>
+ * Configuration config = new Configuration();
+ * config.setDatabaseClass(&quot;my.benchmark.MyDatabase&quot;);
+ * config.setLoadDrivers(2);
+ * config.addTransaction(&quot;deposit&quot;, 1);
+ * Result result = EmbeddedBenchmark.execute(config);
+ * </pre>
+ * 
+ * Das Log-Verzeichnis "logs" muss wie beim verteilten Benchmark vorhanden
+ * sein.
+ */
+public class EmbeddedBenchmark extends Benchmark
+{
+	private static final long serialVersionUID = -6402185383624924405L;
+
+	/**
+	 * Der Konstruktor initialisiert den Benchmark ohne RMI-Registry.
+	 * 
+	 * @param config Konfiguration
+	 * @throws Exception
+	 */
+	public EmbeddedBenchmark(Configuration config) throws Exception
+	{
+		super(config);
+	}
+
+	@Override
+	protected void startRegistry()
+	{
+	}
+
+	@Override
+	protected void stopRegistry() throws NoSuchObjectException
+	{
+		UnicastRemoteObject.unexportObject(remoteLogger, true);
+		UnicastRemoteObject.unexportObject(this, true);
+	}
+
+	/**
+	 * Erzeugt die konfigurierte Anzahl von LoadDrivern in dieser JVM, fhrt
+	 * den Benchmark aus und gibt das Ergebnis zurck. Danach sind die
+	 * LoadDriver und der Benchmark geschlossen.
+	 * 
+	 * @return Ergebnis
+	 * @throws Exception
+	 */
+	public Result execute() throws Exception
+	{
+		for (int i = 0; i < config.getLoadDrivers(); i++)
+		{
+			new LoadDriver(this);
+		}
+		if (!isInitiated())
+		{
+			throw new IllegalStateException("Die LoadDriver sind nicht bereit.");
+		}
+		return run();
+	}
+
+	/**
+	 * Fhrt einen Benchmark mit einer Konfiguration in dieser JVM aus.
+	 * 
+	 * @param config Konfiguration
+	 * @return Ergebnis
+	 * @throws Exception
+	 */
+	public static Result execute(Configuration config) throws Exception
+	{
+		return new EmbeddedBenchmark(config).execute();
+	}
+
+	/**
+	 * Hauptprogramm zum Starten des Benchmarks in einer JVM. Bentigt werden
+	 * nur Benchmark.xml und Transactions.xml.
+	 * 
+	 * @param args Aufrufparameter
+	 */
+	public static void main(String[] args)
+	{
+		try
+		{
+			Configuration config = new Configuration();
+			config.loadBenchmarkConfiguration();
+			config.loadTransactionsConfiguration();
+			System.out.println("Der Benchmark-Lauf wird in dieser JVM gestartet.");
+			Result result = execute(config);
+			System.out.println("Der Benchmark-Lauf wurde ausgefhrt.\n");
+			printResult(result);
+			printTransactionSummary(result);
+		} catch (Exception e)
+		{
+			e.printStackTrace();
+			System.exit(0);
+		}
+	}
+
+}
@@ -0,0 +1,369 @@
+package de.whs.dbi.benchmark;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.rmi.RemoteException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.whs.dbi.benchmark.BenchmarkIF.STAGE;
+import de.whs.dbi.loaddriver.LoadDriverIF;
+import de.whs.dbi.util.Configuration;
+import de.whs.dbi.util.Result;
+import de.whs.dbi.util.TimeSeries;
+import de.whs.dbi.util.TimeSeriesBucket;
+
+/**
+ * Die SaturationSearch sucht in einem einzigen Lauf die hchste Ankunftsrate
+ * der offenen Lastschleife, bei der das 99. Perzentil der Transaktionsdauer
+ * unter einer Grenze (SLO) bleibt. Die Rate wird zunchst in Stufen
+ * vervielfacht, bis die Grenze berschritten wird, und danach zwischen der
+ * letzten eingehaltenen und der ersten verletzten Stufe binr gesucht. Jede
+ * Stufe besteht aus einer kurzen Aufwrm- und einer Messzeit, die aus den
+ * Zeitreihen der LoadDriver ausgewertet wird.
+ * 
+ * Eine Stufe gilt nur dann als tragfhig, wenn auerdem mindestens
+ * {@link #MIN_ACHIEVED} der angebotenen Rate erreicht wurden.
+ * 
+ * Die Nebenlufigkeit ist durch die Datenbankverbindungen der Worker aller
+ * LoadDriver begrenzt. Eine nicht tragfhige Stufe gilt als Grenze des
+ * Lastgenerators, wenn das SLO trotz zu geringer Rate eingehalten wird oder
+ * wenn alle Verbindungen belegt sind, obwohl die mittlere Belegungszeit einer
+ * Verbindung gegenber der ersten Stufe kaum gestiegen ist: Das System
+ * antwortet dann unverndert schnell, nur die Warteschlange vor den
+ * Verbindungen wchst. Die Suche endet in diesem Fall, statt die Grenze des
+ * Lastgenerators als Grenze des Systems auszugeben.
+ */
+public class SaturationSearch
+{
+	/**
+	 * Mindestanteil der angebotenen Rate, der erreicht werden muss
+	 */
+	public final static double MIN_ACHIEVED = 0.95;
+
+	/**
+	 * Anteil der Zeit, ab dem die Verbindungen als voll belegt gelten
+	 */
+	public final static double MAX_UTILIZATION = 0.95;
+
+	/**
+	 * Faktor, um den die mittlere Belegungszeit einer Verbindung gegenber
+	 * der ersten Stufe hchstens steigen darf, damit voll belegte Verbindungen
+	 * als Grenze des Lastgenerators gelten
+	 */
+	public final static double MAX_SERVICE_GROWTH = 2.0;
+
+	/**
+	 * Obergrenze der Dauer der Suche in s (eine Woche)
+	 */
+	protected final static int MAX_DURATION = 7 * 24 * 3600;
+
+	/**
+	 * Messergebnis einer Stufe
+	 */
+	public static class Step
+	{
+		public double offered;
+		public double achieved;
+		public long failures;
+		public double p50;
+		public double p99;
+		public double max;
+		public double service;
+		public double utilization;
+		public boolean sustainable;
+		public boolean clientBound;
+	}
+
+	protected Benchmark benchmark;
+	protected Configuration config;
+	protected ArrayList<Step> steps = new ArrayList<Step>();
+
+	/**
+	 * Anzahl der Datenbankverbindungen aller LoadDriver
+	 */
+	protected int connections;
+
+	/**
+	 * Stufe, bei der der Lastgenerator ausgelastet war, oder null
+	 */
+	protected Step clientBound;
+
+	/**
+	 * Der Konstruktor initialisiert die Suche.
+	 * 
+	 * @param benchmark Benchmark Controller mit registrierten LoadDrivern
+	 */
+	public SaturationSearch(Benchmark benchmark)
+	{
+		this.benchmark = benchmark;
+		this.config = benchmark.config;
+	}
+
+	/**
+	 * Fhrt die Suche aus, schreibt die Kurve aus Durchsatz und Dauer in das
+	 * Log-Verzeichnis und gibt den Kniepunkt zurck.
+	 * 
+	 * @return Hchste tragfhige Stufe oder null, falls schon die erste Stufe
+	 *         die Grenze verletzt
+	 * @throws Exception
+	 */
+	public Step run() throws Exception
+	{
+		connections = benchmark.loaddrivers.size() * config.getWorkers();
+		double rate = config.getSaturationRateStart();
+		for (LoadDriverIF loaddriver : benchmark.loaddrivers)
+		{
+			loaddriver.setArrivalRate(rate);
+		}
+
+		ExecutorService es = Executors.newCachedThreadPool();
+		ArrayList<Future<Result>> futures = benchmark.startLoadDrivers(es, 0, MAX_DURATION, 0);
+
+		// Die Last beginnt erst mit dem Ablaufplan; bis dahin darf die
+		// Aufwrmzeit der ersten Stufe nicht laufen
+		sleepUntil(benchmark.schedule.getStart(STAGE.WARMUP) / 1000000L);
+		benchmark.stage = STAGE.BENCHMARK;
+
+		// Vervielfachen der Rate bis zur ersten Verletzung
+		Step knee = null;
+		Step violation = null;
+		while (true)
+		{
+			Step step = measure(rate);
+			if (steps.size() == 1)
+				checkClients(step);
+			if (step.clientBound)
+			{
+				clientBound = step;
+				break;
+			}
+			if (!step.sustainable)
+			{
+				violation = step;
+				break;
+			}
+			knee = step;
+			if (rate >= config.getSaturationRateMax())
+				break;
+			rate = Math.min(config.getSaturationRateMax(), rate * config.getSaturationRateFactor());
+		}
+
+		// Binre Suche zwischen der letzten tragfhigen und der ersten
+		// verletzten Stufe
+		if (violation != null && clientBound == null)
+		{
+			double low = knee != null ? knee.offered : 0;
+			double high = violation.offered;
+			for (int i = 0; i < config.getSaturationSteps(); i++)
+			{
+				Step step = measure((low + high) / 2);
+				if (step.clientBound)
+				{
+					clientBound = step;
+					break;
+				}
+				if (step.sustainable)
+				{
+					knee = step;
+					low = step.offered;
+				} else
+				{
+					high = step.offered;
+				}
+			}
+		}
+
+		benchmark.setStage(STAGE.FINISHED);
+		Result result = new Result(Configuration.BENCHMARK_NAME, 0);
+		for (Future<Result> future : futures)
+		{
+			result.addSubResult(future.get());
+		}
+		es.shutdown();
+		benchmark.writeTimeSeries(result);
+		writeCurve();
+		benchmark.close();
+
+		printCurve(knee);
+		return knee;
+	}
+
+	/**
+	 * Prft nach der ersten Stufe, ob die Datenbankverbindungen aller
+	 * LoadDriver die hchste Rate berhaupt erzeugen knnen. Nach Little's Law
+	 * schaffen N Verbindungen bei einer mittleren Belegungszeit S hchstens
+	 * N / S Transaktionen pro Sekunde. Die Terminals teilen sich die
+	 * Verbindungen der Worker und erhhen die Grenze nicht.
+	 * 
+	 * @param first Erste Stufe
+	 */
+	protected void checkClients(Step first)
+	{
+		if (first.service <= 0)
+			return;
+		double limit = connections * 1000.0 / first.service;
+		if (config.getSaturationRateMax() > limit)
+			benchmark.log.warning(String.format(Locale.ROOT,
+					"%d Datenbankverbindungen erzeugen bei einer Belegungszeit von %.3f ms hchstens %.1f TPS, "
+							+ "die Suche reicht bis %.1f TPS: Ggf. die Anzahl der Worker erhhen",
+					connections, first.service, limit, config.getSaturationRateMax()));
+	}
+
+	/**
+	 * Stellt eine Ankunftsrate ein und misst nach der Aufwrmzeit Durchsatz
+	 * und Dauer der Transaktionen.
+	 * 
+	 * @param rate Ankunftsrate in Transaktionen pro Sekunde
+	 * @return Messergebnis
+	 * @throws Exception
+	 */
+	protected Step measure(double rate) throws Exception
+	{
+		for (LoadDriverIF loaddriver : benchmark.loaddrivers)
+		{
+			loaddriver.setArrivalRate(rate);
+		}
+
+		int interval = config.getTimeSeriesInterval();
+		long from = clock() + config.getSaturationWarmup() * 1000L + interval - 1;
+		from -= from % interval;
+		long to = from + config.getSaturationMeasure() * 1000L + interval - 1;
+		to -= to % interval;
+
+		// Nach dem Ende der Messzeit wird noch ein Intervall gewartet, damit
+		// die Worker ihre Intervalle abschlieen knnen
+		sleepUntil(to + interval);
+		TimeSeries timeSeries = new TimeSeries(interval);
+		for (LoadDriverIF loaddriver : benchmark.loaddrivers)
+		{
+			timeSeries.add(loaddriver.getInterimResult(from));
+		}
+		TimeSeriesBucket summary = timeSeries.summarize(from, to);
+
+		Step step = new Step();
+		step.offered = rate;
+		if (summary != null)
+		{
+			step.achieved = summary.getCommits() * 1000.0 / (to - from);
+			step.failures = summary.getFailures();
+			step.p50 = summary.getLatencies().getValueAtPercentile(50) / 1000000.0;
+			step.p99 = summary.getLatencies().getValueAtPercentile(99) / 1000000.0;
+			step.max = summary.getLatencies().getMax() / 1000000.0;
+			long transactions = summary.getCommits() + summary.getFailures();
+			if (transactions > 0)
+				step.service = summary.getBusy() / 1000000.0 / transactions;
+			step.utilization = summary.getBusy() / 1000000.0 / (to - from) / connections;
+		}
+		step.sustainable = summary != null && step.p99 <= config.getSaturationSLO()
+				&& step.achieved >= MIN_ACHIEVED * step.offered;
+		Step first = steps.isEmpty() ? step : steps.get(0);
+		step.clientBound = summary != null && !step.sustainable
+				&& (step.p99 <= config.getSaturationSLO() || step.utilization >= MAX_UTILIZATION
+						&& step.service <= MAX_SERVICE_GROWTH * first.service);
+		steps.add(step);
+
+		String line = String.format(Locale.ROOT,
+				"Stufe %.1f TPS: erreicht %.1f TPS, p99 %.3f ms, fehlgeschlagen %d, Verbindungen zu %.0f %% belegt, %s",
+				step.offered, step.achieved, step.p99, step.failures, step.utilization * 100,
+				step.sustainable ? "tragfhig" : step.clientBound ? "Lastgenerator ausgelastet" : "berlastet");
+		System.out.println(line);
+		benchmark.log.info(line);
+		return step;
+	}
+
+	/**
+	 * Schreibt die gemessenen Stufen nach der angebotenen Rate geordnet als
+	 * CSV-Datei in das Log-Verzeichnis.
+	 * 
+	 * @throws IOException
+	 */
+	protected void writeCurve() throws IOException
+	{
+		String fileName = "logs/saturation_" + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()) + ".csv";
+		PrintWriter out = new PrintWriter(new FileWriter(fileName));
+		try
+		{
+			out.println("offered_tps;achieved_tps;failures;p50_ms;p99_ms;max_ms;service_ms;utilization;sustainable;client_bound");
+			for (Step step : sortedSteps())
+			{
+				out.printf(Locale.ROOT, "%.2f;%.2f;%d;%.3f;%.3f;%.3f;%.3f;%.3f;%b;%b\n", step.offered, step.achieved,
+						step.failures, step.p50, step.p99, step.max, step.service, step.utilization, step.sustainable,
+						step.clientBound);
+			}
+		} finally
+		{
+			out.close();
+		}
+		benchmark.log.info("Kurve geschrieben: " + fileName);
+	}
+
+	/**
+	 * Gibt die Kurve und den Kniepunkt auf der Konsole aus.
+	 * 
+	 * @param knee Kniepunkt oder null
+	 */
+	protected void printCurve(Step knee)
+	{
+		System.out.printf(Locale.ROOT, "\nDurchsatz und Dauer (SLO p99 <= %.3f ms):\n", config.getSaturationSLO());
+		for (Step step : sortedSteps())
+		{
+			System.out.printf(Locale.ROOT, "\t%10.1f TPS angeboten, %10.1f TPS erreicht, p50 %8.3f ms, p99 %8.3f ms %s\n",
+					step.offered, step.achieved, step.p50, step.p99,
+					step == knee ? "<- Knie" : step == clientBound ? "<- Lastgenerator ausgelastet" : "");
+		}
+		if (clientBound != null)
+		{
+			String line = String.format(Locale.ROOT,
+					"Lastgenerator ausgelastet: Bei %.1f TPS angeboten wurden nur %.1f TPS erreicht (p99 %.3f ms, "
+							+ "%d Verbindungen zu %.0f %% belegt, Belegungszeit %.3f ms). "
+							+ "Die Grenze des Systems liegt hher; Worker bzw. LoadDriver erhhen.",
+					clientBound.offered, clientBound.achieved, clientBound.p99, connections,
+					clientBound.utilization * 100, clientBound.service);
+			System.out.println(line);
+			benchmark.log.warning(line);
+			if (knee != null)
+				System.out.printf(Locale.ROOT, "Maximale Last unter dem SLO: mindestens %.1f TPS (p99 %.3f ms)\n", knee.achieved, knee.p99);
+		} else if (knee != null)
+			System.out.printf(Locale.ROOT, "Maximale Last unter dem SLO: %.1f TPS (p99 %.3f ms)\n", knee.achieved, knee.p99);
+		else
+			System.out.println("Schon die erste Stufe verletzt das SLO.");
+	}
+
+	protected ArrayList<Step> sortedSteps()
+	{
+		ArrayList<Step> sorted = new ArrayList<Step>(steps);
+		Collections.sort(sorted, new Comparator<Step>()
+		{
+			@Override
+			public int compare(Step a, Step b)
+			{
+				return Double.compare(a.offered, b.offered);
+			}
+		});
+		return sorted;
+	}
+
+	protected long clock() throws RemoteException
+	{
+		return benchmark.getClock() / 1000000L;
+	}
+
+	protected void sleepUntil(long time) throws RemoteException, InterruptedException
+	{
+		long now;
+		while ((now = clock()) < time)
+		{
+			Thread.sleep(time - now);
+		}
+	}
+
+}
@@ -0,0 +1,307 @@
+package de.whs.dbi.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import de.whs.dbi.benchmark.BenchmarkIF.STAGE;
+import de.whs.dbi.loaddriver.TraceRecorder;
+import de.whs.dbi.util.Histogram;
+
+/**
+ * Das TraceTool wertet die Trace-Dateien der LoadDriver nach dem Benchmark
+ * aus. Die Datenstze aller Dateien werden anhand ihrer Startzeitpunkte
+ * (Systemzeit der LoadDriver) zeitlich zusammengefhrt.
+ * 
+ * <pre>
+ * TraceTool csv &lt;ausgabe.csv&gt; &lt;trace&gt;...
+ * TraceTool percentiles [-stage &lt;STAGE|ALL&gt;] &lt;trace&gt;...
+ * </pre>
+ */
+public class TraceTool
+{
+	/**
+	 * Eine geffnete Trace-Datei mit der Position des nchsten Datensatzes.
+	 */
+	protected static class TraceFile
+	{
+		protected String path;
+		protected int loadDriverID;
+		protected int workerID;
+		protected String[] transactions;
+		protected long count;
+		protected long dropped;
+		protected MappedByteBuffer buffer;
+		protected long next = 0;
+
+		/**
+		 * ffnet eine Trace-Datei und liest den Kopf.
+		 * 
+		 * @param path Datei
+		 * @throws IOException
+		 */
+		public TraceFile(String path) throws IOException
+		{
+			this.path = path;
+			RandomAccessFile file = new RandomAccessFile(path, "r");
+			try
+			{
+				buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+			} finally
+			{
+				file.close();
+			}
+
+			if (buffer.capacity() < TraceRecorder.HEADER_SIZE || buffer.getLong() != TraceRecorder.MAGIC)
+			{
+				throw new IOException("Keine Trace-Datei: " + path);
+			}
+			if (buffer.getInt() != TraceRecorder.VERSION || buffer.getInt(20) != TraceRecorder.RECORD_SIZE)
+			{
+				throw new IOException("Nicht untersttzte Version der Trace-Datei: " + path);
+			}
+			loadDriverID = buffer.getInt();
+			workerID = buffer.getInt();
+			buffer.getInt();
+			count = buffer.getLong();
+			dropped = buffer.getLong();
+			transactions = new String[buffer.getInt()];
+			for (int i = 0; i < transactions.length; i++)
+			{
+				byte[] bytes = new byte[buffer.getShort()];
+				buffer.get(bytes);
+				transactions[i] = new String(bytes, "UTF-8");
+			}
+		}
+
+		/**
+		 * Gibt an, ob weitere Datenstze vorhanden sind.
+		 * 
+		 * @return Wahrheitswert
+		 */
+		public boolean hasNext()
+		{
+			return next < count;
+		}
+
+		/**
+		 * Gibt die Position des nchsten Datensatzes zurck.
+		 * 
+		 * @return Position in Bytes
+		 */
+		public int position()
+		{
+			return (int) (TraceRecorder.HEADER_SIZE + next * TraceRecorder.RECORD_SIZE);
+		}
+
+		public long start()
+		{
+			return buffer.getLong(position());
+		}
+
+		public long duration()
+		{
+			return buffer.getLong(position() + 8);
+		}
+
+		public int retries()
+		{
+			return buffer.getInt(position() + 16);
+		}
+
+		public String transaction()
+		{
+			return transactions[buffer.getShort(position() + 20)];
+		}
+
+		public boolean failed()
+		{
+			return buffer.get(position() + 22) == TraceRecorder.OUTCOME_FAILURE;
+		}
+
+		public STAGE stage()
+		{
+			return STAGE.values()[buffer.get(position() + 23)];
+		}
+
+		public String sqlState()
+		{
+			StringBuilder sqlState = new StringBuilder();
+			for (int i = 0; i < 5; i++)
+			{
+				byte b = buffer.get(position() + 24 + i);
+				if (b != 0)
+					sqlState.append((char) b);
+			}
+			return sqlState.toString();
+		}
+	}
+
+	/**
+	 * ffnet die Trace-Dateien und gibt eine Warteschlange zurck, die die
+	 * Dateien nach dem Startzeitpunkt ihres nchsten Datensatzes ordnet.
+	 * 
+	 * @param paths Dateien
+	 * @return Warteschlange
+	 * @throws IOException
+	 */
+	protected static PriorityQueue<TraceFile> open(List<String> paths) throws IOException
+	{
+		PriorityQueue<TraceFile> queue = new PriorityQueue<TraceFile>(Math.max(1, paths.size()), new Comparator<TraceFile>()
+		{
+			@Override
+			public int compare(TraceFile a, TraceFile b)
+			{
+				long x = a.start();
+				long y = b.start();
+				return x < y ? -1 : (x == y ? 0 : 1);
+			}
+		});
+		for (String path : paths)
+		{
+			TraceFile trace = new TraceFile(path);
+			if (trace.dropped > 0)
+			{
+				System.err.printf("%s: %d Datenstze wurden verworfen\n", path, trace.dropped);
+			}
+			if (trace.hasNext())
+				queue.add(trace);
+		}
+		return queue;
+	}
+
+	/**
+	 * Schreibt alle Datenstze zeitlich geordnet als CSV-Datei. Die Zeit wird
+	 * in ms ab dem ersten Startzeitpunkt angegeben.
+	 * 
+	 * @param output Ausgabedatei
+	 * @param paths Trace-Dateien
+	 * @throws IOException
+	 */
+	public static void writeCSV(String output, List<String> paths) throws IOException
+	{
+		PriorityQueue<TraceFile> queue = open(paths);
+		PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(output)));
+		try
+		{
+			out.println("time_ms;loaddriver;worker;transaction;stage;outcome;retries;latency_ms;sqlstate");
+			long origin = queue.isEmpty() ? 0 : queue.peek().start();
+			while (!queue.isEmpty())
+			{
+				TraceFile trace = queue.poll();
+				out.printf(Locale.ROOT, "%.6f;%d;%d;%s;%s;%s;%d;%.6f;%s\n", (trace.start() - origin) / 1000000.0,
+						trace.loadDriverID, trace.workerID, trace.transaction(), trace.stage(),
+						trace.failed() ? "failure" : "commit", trace.retries(), trace.duration() / 1000000.0, trace.sqlState());
+				trace.next++;
+				if (trace.hasNext())
+					queue.add(trace);
+			}
+		} finally
+		{
+			out.close();
+		}
+	}
+
+	/**
+	 * Gibt je Transaktion und insgesamt die Anzahl und die Perzentile der
+	 * Dauern der erfolgreichen Transaktionen aus.
+	 * 
+	 * @param stage Phase oder null fr alle Phasen
+	 * @param paths Trace-Dateien
+	 * @throws IOException
+	 */
+	public static void printPercentiles(STAGE stage, List<String> paths) throws IOException
+	{
+		Map<String, Histogram> histograms = new LinkedHashMap<String, Histogram>();
+		Map<String, long[]> failures = new LinkedHashMap<String, long[]>();
+		Histogram total = new Histogram();
+		long totalFailures = 0;
+
+		for (String path : paths)
+		{
+			TraceFile trace = new TraceFile(path);
+			for (; trace.hasNext(); trace.next++)
+			{
+				if (stage != null && trace.stage() != stage)
+					continue;
+
+				String name = trace.transaction();
+				if (!histograms.containsKey(name))
+				{
+					histograms.put(name, new Histogram());
+					failures.put(name, new long[1]);
+				}
+				if (trace.failed())
+				{
+					failures.get(name)[0]++;
+					totalFailures++;
+				} else
+				{
+					histograms.get(name).record(trace.duration());
+					total.record(trace.duration());
+				}
+			}
+		}
+
+		for (Map.Entry<String, Histogram> entry : histograms.entrySet())
+		{
+			printPercentiles(entry.getKey(), entry.getValue(), failures.get(entry.getKey())[0]);
+		}
+		printPercentiles("Gesamt", total, totalFailures);
+	}
+
+	protected static void printPercentiles(String name, Histogram histogram, long failures)
+	{
+		System.out.printf(Locale.ROOT, "%s: %d erfolgreich, %d fehlgeschlagen, p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms\n",
+				name, histogram.getTotalCount(), failures, histogram.getValueAtPercentile(50) / 1000000.0,
+				histogram.getValueAtPercentile(90) / 1000000.0, histogram.getValueAtPercentile(99) / 1000000.0,
+				histogram.getValueAtPercentile(99.9) / 1000000.0, histogram.getMax() / 1000000.0);
+	}
+
+	/**
+	 * Hauptprogramm des TraceTools.
+	 * 
+	 * @param args Aufrufparameter
+	 */
+	public static void main(String[] args)
+	{
+		try
+		{
+			if (args.length >= 3 && args[0].equals("csv"))
+			{
+				writeCSV(args[1], Arrays.asList(args).subList(2, args.length));
+			} else if (args.length >= 2 && args[0].equals("percentiles"))
+			{
+				STAGE stage = STAGE.BENCHMARK;
+				int first = 1;
+				if (args[1].equals("-stage") && args.length >= 4)
+				{
+					stage = args[2].equals("ALL") ? null : STAGE.valueOf(args[2]);
+					first = 3;
+				}
+				printPercentiles(stage, new ArrayList<String>(Arrays.asList(args).subList(first, args.length)));
+			} else
+			{
+				System.out.println("Aufruf: TraceTool csv <ausgabe.csv> <trace>...");
+				System.out.println("        TraceTool percentiles [-stage <STAGE|ALL>] <trace>...");
+			}
+		} catch (Exception e)
+		{
+			e.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+}
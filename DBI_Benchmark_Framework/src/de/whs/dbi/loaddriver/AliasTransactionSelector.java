@@ -0,0 +1,97 @@
+package de.whs.dbi.loaddriver;
+
+import java.util.Random;
+
+/**
+ * AliasTransactionSelector whlt Transaktionen mit der Alias-Methode nach Vose
+ * aus. Die Tabellen werden einmalig aus den Gewichtungen berechnet, danach
+ * bentigt jede Auswahl unabhngig von der Anzahl der Transaktionen nur eine
+ * Zufallszahl fr die Spalte und eine fr den Mnzwurf.
+ */
+public class AliasTransactionSelector implements TransactionSelector
+{
+	/**
+	 * Wahrscheinlichkeit, mit der in einer Spalte die Spalte selbst gewhlt wird
+	 */
+	protected final double[] probability;
+
+	/**
+	 * Alternative Transaktion einer Spalte
+	 */
+	protected final int[] alias;
+
+	/**
+	 * Der Konstruktor berechnet die Alias-Tabellen.
+	 * 
+	 * @param weights Gewichtungen der Transaktionen
+	 */
+	public AliasTransactionSelector(int[] weights)
+	{
+		int n = weights.length;
+		long sum = 0;
+		for (int weight : weights)
+		{
+			if (weight < 0)
+			{
+				throw new IllegalArgumentException();
+			}
+			sum += weight;
+		}
+		if (sum <= 0)
+		{
+			throw new IllegalArgumentException();
+		}
+
+		probability = new double[n];
+		alias = new int[n];
+
+		// Skalierte Wahrscheinlichkeiten in kleine (< 1) und groe (>= 1) aufteilen
+		double[] scaled = new double[n];
+		int[] small = new int[n];
+		int[] large = new int[n];
+		int smallCount = 0;
+		int largeCount = 0;
+		for (int i = 0; i < n; i++)
+		{
+			scaled[i] = (double) weights[i] * n / sum;
+			if (scaled[i] < 1.0)
+				small[smallCount++] = i;
+			else
+				large[largeCount++] = i;
+		}
+
+		// Jede kleine Spalte mit dem Rest einer groen Spalte auffllen
+		while (smallCount > 0 && largeCount > 0)
+		{
+			int less = small[--smallCount];
+			int more = large[--largeCount];
+
+			probability[less] = scaled[less];
+			alias[less] = more;
+
+			scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+			if (scaled[more] < 1.0)
+				small[smallCount++] = more;
+			else
+				large[largeCount++] = more;
+		}
+
+		// Verbleibende Spalten sind (bis auf Rundungsfehler) voll
+		while (largeCount > 0)
+		{
+			probability[large[--largeCount]] = 1.0;
+		}
+		while (smallCount > 0)
+		{
+			probability[small[--smallCount]] = 1.0;
+		}
+	}
+
+	@Override
+	public int next(Random random)
+	{
+		int column = random.nextInt(probability.length);
+		return random.nextDouble() < probability[column] ? column : alias[column];
+	}
+
+}
@@ -0,0 +1,90 @@
+package de.whs.dbi.loaddriver;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ein ArrivalSchedule legt fr eine offene Lastschleife (open loop) die
+ * beabsichtigten Startzeitpunkte der Transaktionen mit einer festen
+ * Ankunftsrate fest. Die Startzeitpunkte hngen nicht davon ab, wie lange
+ * die vorherigen Transaktionen gedauert haben. Gert der Ausfhrende in
+ * Rckstand, liegen die beabsichtigten Startzeitpunkte in der Vergangenheit
+ * und die Wartezeit geht in die gemessene Dauer ein (Korrektur der
+ * "coordinated omission").
+ */
+public class ArrivalSchedule
+{
+	/**
+	 * Abstand zwischen zwei beabsichtigten Startzeitpunkten in ns
+	 */
+	protected long interval;
+
+	/**
+	 * Nchster beabsichtigter Startzeitpunkt (System.nanoTime())
+	 */
+	protected long next;
+
+	/**
+	 * Der Konstruktor initialisiert den Ablaufplan. Der erste Startzeitpunkt
+	 * wird zufllig innerhalb des ersten Intervalls gewhlt, damit mehrere
+	 * Ausfhrende nicht gleichzeitig beginnen.
+	 * 
+	 * @param rate Ankunftsrate in Transaktionen pro Sekunde
+	 */
+	public ArrivalSchedule(double rate)
+	{
+		if (rate <= 0)
+		{
+			throw new IllegalArgumentException();
+		}
+
+		interval = Math.max(1, Math.round(1000000000.0 / rate));
+		next = System.nanoTime() + (long) (ParameterGenerator.getRandom().nextDouble() * interval);
+	}
+
+	/**
+	 * Wartet bis zum nchsten beabsichtigten Startzeitpunkt und gibt diesen
+	 * zurck. Liegt der Zeitpunkt bereits in der Vergangenheit, wird nicht
+	 * gewartet.
+	 * 
+	 * @return Beabsichtigter Startzeitpunkt (System.nanoTime())
+	 * @throws InterruptedException
+	 */
+	public long awaitNext() throws InterruptedException
+	{
+		long intended = next;
+		next += interval;
+		parkUntil(intended);
+		return intended;
+	}
+
+	/**
+	 * Gibt den Abstand zwischen zwei Startzeitpunkten zurck.
+	 * 
+	 * @return Abstand in ns
+	 */
+	public long getInterval()
+	{
+		return interval;
+	}
+
+	/**
+	 * Wartet bis zu einem Zeitpunkt. Im Gegensatz zu Thread.sleep() ist die
+	 * Auflsung nicht auf Millisekunden beschrnkt.
+	 * 
+	 * @param deadline Zeitpunkt (System.nanoTime())
+	 * @throws InterruptedException
+	 */
+	public static void parkUntil(long deadline) throws InterruptedException
+	{
+		long remaining;
+		while ((remaining = deadline - System.nanoTime()) > 0)
+		{
+			LockSupport.parkNanos(remaining);
+			if (Thread.interrupted())
+			{
+				throw new InterruptedException();
+			}
+		}
+	}
+
+}
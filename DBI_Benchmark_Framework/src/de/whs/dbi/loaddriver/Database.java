@@ -1,9 +1,11 @@
 package de.whs.dbi.loaddriver;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.logging.Logger;
 
 import de.whs.dbi.util.Configuration;
 
@@ -36,6 +38,19 @@ public abstract class Database
 		init();
 	}
 
+	/**
+	 * Legt die Konfiguration fr einen weiteren Lauf fest, ohne die
+	 * Datenbankverbindung neu aufzubauen. Der LoadDriver ruft die Methode nur
+	 * auf, wenn sich die benutzerdefinierten Parameter (user.*) nicht
+	 * gendert haben; andernfalls wird die Datenbank neu erzeugt.
+	 * 
+	 * @param config Konfiguration
+	 */
+	public void setConfiguration(Configuration config)
+	{
+		this.config = config;
+	}
+
 	/**
 	 * Stellt die Datenbankverbindung her und deaktiviert AutoCommit.
 	 * 
@@ -96,19 +111,73 @@ public abstract class Database
 		connection.rollback();
 	}
 
+	/**
+	 * Schreibt nach einem Lauf Kennzahlen der Datenbankverbindung (z. B. zu
+	 * vorbereiteten Statements) in das Log des LoadDrivers, das an den
+	 * Benchmark Controller bertragen wird. Die Standardimplementierung
+	 * schreibt nichts.
+	 * 
+	 * @param log Log des LoadDrivers
+	 * @throws SQLException
+	 */
+	public void logStatistics(Logger log) throws SQLException
+	{
+	}
+
 	/**
 	 * Erstellt ein Transaktionsobjekt zu einem vorgegebenen Methodennamen aus
 	 * dem Lastprofil.
 	 * 
+	 * Die Methode wird dabei einmalig ber den {@link TransactionBinder} an
+	 * diese Datenbank gebunden. Ein mglicher Rckgabewert wird verworfen,
+	 * sodass jede Transaktion mit derselben Signatur ()V aufgerufen werden kann.
+	 * 
 	 * @param transactionName vorgegebener Methodenname
 	 * @return Transaktion
 	 * @throws NoSuchMethodException
 	 * @throws SecurityException
+	 * @throws IllegalAccessException
 	 */
-	public final Transaction createTransaction(String transactionName) throws NoSuchMethodException, SecurityException
+	public final Transaction createTransaction(String transactionName) throws NoSuchMethodException, SecurityException,
+			IllegalAccessException
 	{
 		Method method = getClass().getMethod(transactionName);
-		return new Transaction(this, method, config.getBenchmarkTime());
+		return new Transaction(this, method.getName(), bind(method), config.getBenchmarkTime());
+	}
+
+	/**
+	 * Bindet eine Methode ber den TransactionBinder aus dem ClassLoader der
+	 * Datenbankklasse an diese Datenbank.
+	 * 
+	 * @param method Methode der Transaktion
+	 * @return Gebundene Methode
+	 * @throws NoSuchMethodException
+	 * @throws IllegalAccessException
+	 */
+	private TransactionMethod bind(Method method) throws NoSuchMethodException, IllegalAccessException
+	{
+		ClassLoader loader = getClass().getClassLoader();
+		if (loader == TransactionBinder.class.getClassLoader())
+			return TransactionBinder.bind(this, method);
+
+		try
+		{
+			Class<?> binder = Class.forName(TransactionBinder.class.getName(), true, loader);
+			return (TransactionMethod) binder.getMethod("bind", Database.class, Method.class).invoke(null, this, method);
+		} catch (ClassNotFoundException e)
+		{
+			return TransactionBinder.bind(this, method);
+		} catch (InvocationTargetException e)
+		{
+			Throwable cause = e.getCause();
+			if (cause instanceof IllegalAccessException)
+				throw (IllegalAccessException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IllegalStateException(cause);
+		}
 	}
 	
 }
@@ -0,0 +1,86 @@
+package de.whs.dbi.loaddriver;
+
+import java.util.Random;
+
+/**
+ * DeckTransactionSelector whlt Transaktionen wie TPC-C ber ein gemischtes
+ * Kartendeck aus. Das Deck enthlt jede Transaktion so oft, wie es ihre
+ * Gewichtung vorgibt. Nachdem alle Karten gezogen wurden, wird das Deck neu
+ * gemischt. Damit wird das konfigurierte Lastprofil in jedem Fenster von
+ * (Summe der Gewichtungen) Transaktionen exakt eingehalten.
+ */
+public class DeckTransactionSelector implements TransactionSelector
+{
+	/**
+	 * Kartendeck mit den Indizes der Transaktionen
+	 */
+	protected final int[] deck;
+
+	/**
+	 * Position der nchsten Karte im Deck
+	 */
+	protected int position;
+
+	/**
+	 * Der Konstruktor legt das Kartendeck an.
+	 * 
+	 * @param weights Gewichtungen der Transaktionen
+	 */
+	public DeckTransactionSelector(int[] weights)
+	{
+		int size = 0;
+		for (int weight : weights)
+		{
+			if (weight < 0)
+			{
+				throw new IllegalArgumentException();
+			}
+			size += weight;
+		}
+		if (size <= 0)
+		{
+			throw new IllegalArgumentException();
+		}
+
+		deck = new int[size];
+		int card = 0;
+		for (int i = 0; i < weights.length; i++)
+		{
+			for (int j = 0; j < weights[i]; j++)
+			{
+				deck[card++] = i;
+			}
+		}
+
+		// Das Deck wird vor der ersten Karte gemischt
+		position = deck.length;
+	}
+
+	@Override
+	public int next(Random random)
+	{
+		if (position == deck.length)
+		{
+			shuffle(random);
+			position = 0;
+		}
+		return deck[position++];
+	}
+
+	/**
+	 * Mischt das Deck nach Fisher-Yates.
+	 * 
+	 * @param random Zufallszahlengenerator
+	 */
+	protected void shuffle(Random random)
+	{
+		for (int i = deck.length - 1; i > 0; i--)
+		{
+			int j = random.nextInt(i + 1);
+			int card = deck[i];
+			deck[i] = deck[j];
+			deck[j] = card;
+		}
+	}
+
+}
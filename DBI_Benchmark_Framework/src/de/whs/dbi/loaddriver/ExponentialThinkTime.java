@@ -0,0 +1,24 @@
+package de.whs.dbi.loaddriver;
+
+import java.util.Random;
+
+/**
+ * Eine ExponentialThinkTime ist eine negativ-exponentiell verteilte
+ * Bedenkzeit wie bei TPC-C. Die Verteilung wird wie dort beim Zehnfachen des
+ * Mittelwerts abgeschnitten.
+ */
+public class ExponentialThinkTime implements ThinkTime
+{
+	/**
+	 * Obergrenze als Vielfaches des Mittelwerts
+	 */
+	public final static double TRUNCATION = 10.0;
+
+	@Override
+	public long next(double mean, Random random)
+	{
+		// 1 - nextDouble() liegt in (0, 1], sodass der Logarithmus endlich ist
+		double value = -Math.log(1.0 - random.nextDouble()) * mean;
+		return Math.round(Math.min(value, TRUNCATION * mean));
+	}
+}
@@ -0,0 +1,15 @@
+package de.whs.dbi.loaddriver;
+
+import java.util.Random;
+
+/**
+ * Eine FixedThinkTime ist eine konstante Bedenkzeit.
+ */
+public class FixedThinkTime implements ThinkTime
+{
+	@Override
+	public long next(double mean, Random random)
+	{
+		return Math.round(mean);
+	}
+}
@@ -1,21 +1,35 @@
 package de.whs.dbi.loaddriver;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.rmi.AlreadyBoundException;
 import java.rmi.NoSuchObjectException;
+import java.rmi.NotBoundException;
 import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.logging.Level;
+import java.util.LinkedHashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
 import java.util.logging.Logger;
 
 import de.whs.dbi.benchmark.BenchmarkIF;
 import de.whs.dbi.benchmark.BenchmarkIF.STAGE;
 import de.whs.dbi.util.Configuration;
+import de.whs.dbi.util.PhaseSchedule;
 import de.whs.dbi.util.RemoteHandler;
 import de.whs.dbi.util.Result;
+import de.whs.dbi.util.TimeSeries;
 
 /**
  * LoadDriver realisiert einen einzelnen Load Driver.
@@ -30,12 +44,47 @@ public class LoadDriver extends UnicastRemoteObject implements LoadDriverIF
 	protected Configuration config;
 	protected BenchmarkIF benchmark;
 	protected Logger log;
-	protected Database database;
+	protected RemoteHandler logHandler;
+	protected ArrayList<Worker> workers = new ArrayList<Worker>();
 
-	protected ArrayList<Transaction> transactions = new ArrayList<Transaction>();
-	protected ArrayList<Integer> weights = new ArrayList<Integer>();
+	protected volatile STAGE stage = STAGE.INIT;
 
-	protected STAGE stage = STAGE.INIT;
+	/**
+	 * Anzahl der Abfragen fr die Schtzung des Abstands der Uhren
+	 */
+	protected final static int CLOCK_SAMPLES = 10;
+
+	/**
+	 * Ablaufplan in der Uhr des LoadDrivers (System.nanoTime())
+	 */
+	protected volatile PhaseSchedule schedule;
+
+	/**
+	 * Ankunftsrate der offenen Lastschleife fr den gesamten Benchmark
+	 */
+	protected volatile double arrivalRate;
+
+	/**
+	 * Wird bei jeder nderung der Ankunftsrate erhht, damit die Worker bzw.
+	 * Terminals ihren Ablaufplan neu erzeugen
+	 */
+	protected volatile int arrivalRateVersion = 0;
+
+	/**
+	 * ClassLoader, mit dem die Datenbankklasse erneut geladen wurde, oder null
+	 */
+	protected ReloadingClassLoader classLoader;
+
+	/**
+	 * Wird beim Schlieen des LoadDrivers ausgelst
+	 */
+	protected CountDownLatch closed = new CountDownLatch(1);
+
+	/**
+	 * Geschtzter Abstand der Uhr des Benchmark Controllers zu System.nanoTime()
+	 * in ns
+	 */
+	protected long clockOffset;
 
 	/**
 	 * Der Konstruktor initialisiert den LoadDriver, sodass dieser im Benchmark
@@ -49,25 +98,140 @@ public class LoadDriver extends UnicastRemoteObject implements LoadDriverIF
 		config.loadRMIConfiguration();
 
 		registry = LocateRegistry.getRegistry(config.getRegistryHost(), config.getRegistryPort());
-		benchmark = (BenchmarkIF) registry.lookup(Configuration.BENCHMARK_NAME);
+		init((BenchmarkIF) registry.lookup(Configuration.BENCHMARK_NAME));
+	}
 
+	/**
+	 * Der Konstruktor initialisiert den LoadDriver fr einen Benchmark
+	 * Controller in derselben JVM. Die RMI-Registry wird nicht verwendet.
+	 * 
+	 * @param benchmark Benchmark Controller
+	 * @throws Exception
+	 */
+	public LoadDriver(BenchmarkIF benchmark) throws Exception
+	{
+		init(benchmark);
+	}
+
+	/**
+	 * bernimmt die Konfiguration vom Benchmark Controller, initialisiert die
+	 * Worker und registriert den LoadDriver.
+	 * 
+	 * @param benchmark Benchmark Controller
+	 * @throws Exception
+	 */
+	protected void init(BenchmarkIF benchmark) throws Exception
+	{
+		this.benchmark = benchmark;
 		config = benchmark.getConfiguration();
+		arrivalRate = config.getArrivalRate();
 
-		loadDatabase();
-		loadTransactions();
+		loadWorkers();
 
-		loadDriverID = benchmark.registerLoadDriver(this);
+		try
+		{
+			loadDriverID = benchmark.registerLoadDriver(this);
+		} catch (AlreadyBoundException e)
+		{
+			closeDatabase();
+			UnicastRemoteObject.unexportObject(this, true);
+			throw e;
+		}
+		clockOffset = estimateClockOffset();
 
 		log = Logger.getLogger(LoadDriver.class.getCanonicalName() + loadDriverID);
-		log.addHandler(new RemoteHandler(benchmark.getRemoteLogger()));
+		logHandler = new RemoteHandler(benchmark.getRemoteLogger(), config.getLogBuffer());
+		log.addHandler(logHandler);
 		log.setLevel(config.getLogLevel());
+		// In derselben JVM wie der Controller wrden die Meldungen sonst
+		// zustzlich direkt ber den bergeordneten Logger protokolliert
+		if (registry == null)
+			log.setUseParentHandlers(false);
+		log.fine("Abstand der Uhr zum Controller in ms: " + (clockOffset - (System.currentTimeMillis() * 1000000L - System.nanoTime())) / 1000000.0);
 
 		stage = STAGE.READY;
 	}
 
 	/**
-	 * Initialisiert die Datenbank mitsamt einer Verbindung.
+	 * Schtzt den Abstand der Uhr des Benchmark Controllers zu System.nanoTime()
+	 * wie bei NTP: Von mehreren Abfragen wird die mit der krzesten Umlaufzeit
+	 * verwendet und angenommen, dass der Controller die Uhrzeit in der Mitte
+	 * der Umlaufzeit gelesen hat.
 	 * 
+	 * @return Abstand in ns
+	 * @throws RemoteException
+	 */
+	protected long estimateClockOffset() throws RemoteException
+	{
+		long offset = 0;
+		long bestRoundTrip = Long.MAX_VALUE;
+		for (int i = 0; i < CLOCK_SAMPLES; i++)
+		{
+			long before = System.nanoTime();
+			long clock = benchmark.getClock();
+			long after = System.nanoTime();
+			if (after - before < bestRoundTrip)
+			{
+				bestRoundTrip = after - before;
+				offset = clock - (before + (after - before) / 2);
+			}
+		}
+		return offset;
+	}
+
+	/**
+	 * Gibt die Uhrzeit des Benchmark Controllers zu einem Zeitpunkt zurck.
+	 * 
+	 * @param time Zeitpunkt (System.nanoTime())
+	 * @return Uhrzeit des Controllers in ns seit 1970 (UTC)
+	 */
+	public long toClock(long time)
+	{
+		return time + clockOffset;
+	}
+
+	/**
+	 * Gibt die Phase zurck, der eine Transaktion mit diesem
+	 * Startzeitpunkt zugeordnet wird.
+	 * 
+	 * @param time Startzeitpunkt (System.nanoTime())
+	 * @return Phase
+	 */
+	public STAGE getStage(long time)
+	{
+		PhaseSchedule schedule = this.schedule;
+		if (stage == STAGE.FINISHED || schedule == null)
+			return stage;
+		return schedule.getStage(time);
+	}
+
+	/**
+	 * Prft, ob der Benchmark beendet ist, weil der Ablaufplan abgelaufen ist
+	 * oder der Controller ihn vorzeitig beendet hat.
+	 * 
+	 * @return Wahrheitswert
+	 */
+	public boolean isFinished()
+	{
+		return getStage(System.nanoTime()) == STAGE.FINISHED;
+	}
+
+	/**
+	 * Wartet bis zum Beginn der Phase WARMUP.
+	 * 
+	 * @throws InterruptedException
+	 */
+	public void awaitStart() throws InterruptedException
+	{
+		PhaseSchedule schedule = this.schedule;
+		if (schedule != null)
+			ArrivalSchedule.parkUntil(schedule.getStart(STAGE.WARMUP));
+	}
+
+	/**
+	 * Initialisiert eine Datenbank mitsamt einer eigenen Verbindung.
+	 * 
+	 * @return Datenbank
 	 * @throws ClassNotFoundException
 	 * @throws NoSuchMethodException
 	 * @throws SecurityException
@@ -77,59 +241,109 @@ public class LoadDriver extends UnicastRemoteObject implements LoadDriverIF
 	 * @throws IllegalArgumentException
 	 * @throws InvocationTargetException
 	 */
-	protected void loadDatabase() throws ClassNotFoundException, NoSuchMethodException, SecurityException, InstantiationException,
+	protected Database loadDatabase() throws ClassNotFoundException, NoSuchMethodException, SecurityException, InstantiationException,
 			IllegalAccessException, SQLException, IllegalArgumentException, InvocationTargetException
 	{
-		database = (Database) Class.forName(config.getDatabaseClass()).getConstructor(Configuration.class).newInstance(config);
+		ClassLoader loader = classLoader != null ? classLoader : LoadDriver.class.getClassLoader();
+		return (Database) Class.forName(config.getDatabaseClass(), true, loader).getConstructor(Configuration.class)
+				.newInstance(config);
 	}
 
 	/**
-	 * Schliet die Datenbankverbindung.
+	 * Initialisiert die Worker. Jeder Worker erhlt eine eigene Datenbank
+	 * mitsamt Verbindung und eigene Transaktionsobjekte.
 	 * 
-	 * @throws SQLException
+	 * @throws Exception
 	 */
-	protected void closeDatabase() throws SQLException
+	protected void loadWorkers() throws Exception
 	{
-		database.closeConnection();
+		for (int i = 1; i <= config.getWorkers(); i++)
+		{
+			workers.add(new Worker(this, i, loadDatabase()));
+		}
 	}
 
 	/**
-	 * Initialisiert die Transaktionen mit den dazugehrigen Gewichtungen.
+	 * Legt fr jeden Worker eine Trace-Datei an, falls ein Verzeichnis fr die
+	 * Aufzeichnung der Transaktionen konfiguriert ist. Die Dateien eines Laufs
+	 * liegen in einem eigenen Unterverzeichnis, damit weitere Lufe (z. B.
+	 * einer Kampagne) sie nicht berschreiben.
 	 * 
-	 * @throws NoSuchMethodException
-	 * @throws SecurityException
+	 * @throws IOException
 	 */
-	protected void loadTransactions() throws NoSuchMethodException, SecurityException
+	protected void openTraces() throws IOException
 	{
-		Integer weight = 0;
-		for (String transactionName : config.getTransactions())
+		String directory = config.getTraceDirectory();
+		if (directory.isEmpty())
+			return;
+
+		File runDirectory = TraceRecorder.getRunDirectory(directory, toClock(schedule.getStart(STAGE.WARMUP)));
+		for (Worker worker : workers)
 		{
-			transactions.add(database.createTransaction(transactionName));
-			weight += config.getTransactionWeight(transactionName);
-			weights.add(weight);
+			ArrayList<String> names = new ArrayList<String>();
+			for (Transaction transaction : worker.getTransactions())
+			{
+				names.add(transaction.getName());
+			}
+			File file = new File(runDirectory, Configuration.LOADDRIVER_NAME + loadDriverID + "_" + Configuration.WORKER_NAME
+					+ worker.getWorkerID() + ".trace");
+			worker.setTraceRecorder(new TraceRecorder(file, loadDriverID, worker.getWorkerID(), names, config.getTraceRecords(),
+					clockOffset));
 		}
 	}
 
 	/**
-	 * Whlt eine Transaktion unter der Bercksichtigung der Gewichtungen aus.
+	 * Schliet die Trace-Dateien aller Worker.
 	 * 
-	 * @return Ausgewhlte Transaktion
-	 * @throws NoSuchMethodException
-	 * @throws SecurityException
+	 * @throws IOException
 	 */
-	protected Transaction chooseTransaction() throws NoSuchMethodException, SecurityException
+	protected void closeTraces() throws IOException
 	{
-		int i;
-		Integer randomWeight = ParameterGenerator.generateRandomInt(1, weights.get(weights.size() - 1));
+		for (Worker worker : workers)
+		{
+			TraceRecorder trace = worker.getTraceRecorder();
+			if (trace == null)
+				continue;
 
-		for (i = 0; i < transactions.size(); i++)
+			trace.close();
+			worker.setTraceRecorder(null);
+			log.fine("Aufgezeichnete Transaktionen " + Configuration.WORKER_NAME + worker.getWorkerID() + ": " + trace.getCount());
+			if (trace.getDropped() > 0)
+				log.warning("Verworfene Datenstze der Aufzeichnung " + Configuration.WORKER_NAME + worker.getWorkerID() + ": "
+						+ trace.getDropped());
+		}
+	}
+
+	/**
+	 * Schliet die Datenbankverbindungen aller Worker.
+	 * 
+	 * @throws SQLException
+	 */
+	protected void closeDatabase() throws SQLException
+	{
+		for (Worker worker : workers)
 		{
-			Integer weight = weights.get(i);
-			if (randomWeight <= weight)
-				break;
+			worker.close();
 		}
+	}
 
-		return transactions.get(i);
+	/**
+	 * Schliet den ClassLoader, mit dem die Datenbankklasse erneut geladen
+	 * wurde, und gibt damit dessen geffnete JAR-Dateien frei. Die
+	 * Datenbanken der Worker mssen vorher geschlossen sein.
+	 */
+	protected void closeClassLoader()
+	{
+		if (classLoader == null)
+			return;
+		try
+		{
+			classLoader.close();
+		} catch (IOException e)
+		{
+			log.warning("ClassLoader der Datenbankklasse konnte nicht geschlossen werden: " + e.getMessage());
+		}
+		classLoader = null;
 	}
 
 	/**
@@ -141,119 +355,264 @@ public class LoadDriver extends UnicastRemoteObject implements LoadDriverIF
 	public void close() throws SQLException, NoSuchObjectException
 	{
 		closeDatabase();
+		closeClassLoader();
+		log.removeHandler(logHandler);
+		logHandler.close();
 		UnicastRemoteObject.unexportObject(this, true);
+		closed.countDown();
 	}
 
 	/**
-	 * Fhrt den Benchmark aus und gibt das Ergebnis zurck.
+	 * Fhrt jeden Worker in einem eigenen Thread ber seine eigene
+	 * Datenbankverbindung aus.
 	 * 
-	 * @return Ergebnis
 	 * @throws Exception
 	 */
-	@Override
-	public Result call() throws Exception
+	protected void runWorkers() throws Exception
+	{
+		ExecutorService es = Executors.newFixedThreadPool(workers.size());
+		ArrayList<Future<Result>> futures = new ArrayList<Future<Result>>();
+		try
+		{
+			for (Worker worker : workers)
+			{
+				futures.add(es.submit(worker));
+			}
+			for (Future<Result> future : futures)
+			{
+				future.get();
+			}
+		} finally
+		{
+			es.shutdown();
+		}
+	}
+
+	/**
+	 * Fhrt die emulierten Terminals aus. Die Terminals teilen sich die
+	 * Datenbankverbindungen der Worker ber einen Pool.
+	 * 
+	 * @throws Exception
+	 */
+	protected void runTerminals() throws Exception
 	{
-		while (stage != STAGE.FINISHED)
+		BlockingQueue<Worker> pool = new LinkedBlockingQueue<Worker>(workers);
+		ExecutorService es = Executors.newCachedThreadPool(createTerminalThreadFactory());
+		ArrayList<Future<Void>> futures = new ArrayList<Future<Void>>();
+		try
 		{
-			// Ausfhrung der Transaktion
-			
-			Transaction	transaction = chooseTransaction();
-			try
+			for (int i = 1; i <= config.getTerminals(); i++)
 			{
-				long duration = System.currentTimeMillis();
-				// Ausfhren der Transaktion in eigener Methode, um 
-				// Serialisierungsfehler abzufangen
-				executeTransaction(transaction);
-				duration = System.currentTimeMillis() - duration;
-				log.log(Level.FINE, "Dauer der erfolgreichen Transaktion \"" + transaction.getName() + "\" in ms: " + duration);
-				if (stage == STAGE.BENCHMARK)
-					transaction.getResult().incSuccessfullTransactions(duration);
-				Thread.sleep(config.getThinkTime());
+				futures.add(es.submit(new Terminal(this, i, pool)));
 			}
-			catch (Exception e)
+			for (Future<Void> future : futures)
 			{
-				log.log(Level.WARNING, "Fehlgeschlagene Transaktion \""
-						+ transaction.getName() + "\"", e.getCause());
-				if (stage == STAGE.BENCHMARK)
-					transaction.getResult().incFailedTransactions();
+				future.get();
 			}
+		} finally
+		{
+			es.shutdown();
 		}
+	}
+
+	/**
+	 * Erzeugt den Random number generator fr einen Worker bzw. ein Terminal.
+	 * Der Teilstrom wird deterministisch aus random.seed, der ID des
+	 * LoadDrivers und der ID des Workers bzw. Terminals abgeleitet. Ein
+	 * erneuter Lauf mit demselben Startwert erzeugt damit dieselben Parameter.
+	 * 
+	 * @param id ID des Workers bzw. Terminals
+	 * @return Random number generator
+	 */
+	protected SplitMixRandom createRandom(int id)
+	{
+		return new SplitMixRandom(config.getRandomSeed()).split(((long) loadDriverID << 32) | id);
+	}
+
+	/**
+	 * Erzeugt den Pacer fr die geschlossene Lastschleife eines Workers bzw.
+	 * Terminals mit der konfigurierten Verteilung und den Bedenkzeiten je
+	 * Transaktion. Alle Worker verwenden dieselbe Reihenfolge der
+	 * Transaktionen.
+	 * 
+	 * @return Pacer
+	 */
+	protected Pacer createPacer()
+	{
+		ThinkTime thinkTime;
+		String distribution = config.getThinkTimeDistribution();
+		if (distribution.equals("fixed"))
+			thinkTime = new FixedThinkTime();
+		else if (distribution.equals("exponential"))
+			thinkTime = new ExponentialThinkTime();
+		else if (distribution.equals("uniform"))
+			thinkTime = new UniformThinkTime(config.getThinkTimeSpread());
+		else
+			throw new IllegalArgumentException("Unbekannte Verteilung der Bedenkzeit: " + distribution);
+
+		String mode = config.getThinkTimeMode();
+		if (!mode.equals("think") && !mode.equals("cycle"))
+			throw new IllegalArgumentException("Unbekannter Modus der Bedenkzeit: " + mode);
+
+		ArrayList<Transaction> transactions = workers.get(0).getTransactions();
+		double[] means = new double[transactions.size()];
+		for (int i = 0; i < means.length; i++)
+		{
+			Double mean = config.getTransactionThinkTime(transactions.get(i).getName());
+			means[i] = (mean != null ? mean : config.getThinkTime()) * 1000000.0;
+		}
+		return new Pacer(thinkTime, means, mode.equals("cycle"));
+	}
+
+	/**
+	 * Erzeugt den Ablaufplan fr die offene Lastschleife eines Workers bzw.
+	 * Terminals. Die aktuelle Ankunftsrate des gesamten Benchmarks wird
+	 * dazu gleichmig auf alle LoadDriver und deren Worker bzw. Terminals
+	 * verteilt.
+	 * 
+	 * @return Ablaufplan oder null fr die geschlossene Lastschleife
+	 */
+	protected ArrivalSchedule createArrivalSchedule()
+	{
+		double rate = arrivalRate;
+		if (rate <= 0)
+			return null;
+
+		int executors = config.getTerminals() > 0 ? config.getTerminals() : workers.size();
+		return new ArrivalSchedule(rate / (config.getLoadDrivers() * executors));
+	}
+
+	/**
+	 * Erzeugt die ThreadFactory fr die Terminals. Sofern die Laufzeitumgebung
+	 * virtuelle Threads untersttzt, werden diese verwendet, da ein Terminal
+	 * die meiste Zeit in der Bedenkzeit wartet. Andernfalls wird auf
+	 * Plattform-Threads zurckgegriffen.
+	 * 
+	 * @return ThreadFactory
+	 */
+	protected ThreadFactory createTerminalThreadFactory()
+	{
+		try
+		{
+			// Thread.ofVirtual().factory() ber Reflection, damit das Framework
+			// auch mit lteren Java-Versionen bersetzt werden kann
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+			return (ThreadFactory) factory.invoke(builder);
+		} catch (Exception e)
+		{
+			log.warning("Virtuelle Threads werden nicht untersttzt, die Terminals laufen als Plattform-Threads");
+			return Executors.defaultThreadFactory();
+		}
+	}
 
-		// Zusammenfassen der Ergebnisse
+	/**
+	 * Fhrt den Benchmark mit allen Workern bzw. Terminals aus und gibt das
+	 * zusammengefasste Ergebnis zurck.
+	 * 
+	 * @return Ergebnis
+	 * @throws Exception
+	 */
+	@Override
+	public Result call() throws Exception
+	{
+		openTraces();
+		try
+		{
+			if (config.getTerminals() > 0)
+				runTerminals();
+			else
+				runWorkers();
+		} finally
+		{
+			closeTraces();
+		}
+
+		// Zusammenfassen der Ergebnisse aller Worker je Transaktion
 		Result result = new Result(Configuration.LOADDRIVER_NAME + loadDriverID, config.getBenchmarkTime());
-		for (Transaction transaction : transactions)
+		LinkedHashMap<String, Result> subResults = new LinkedHashMap<String, Result>();
+		TimeSeries timeSeries = new TimeSeries(config.getTimeSeriesInterval());
+		for (Worker worker : workers)
+		{
+			worker.getTimeSeries().close();
+			timeSeries.add(worker.getTimeSeries());
+			for (Transaction transaction : worker.getTransactions())
+			{
+				Result subResult = subResults.get(transaction.getName());
+				if (subResult == null)
+				{
+					subResult = new Result(transaction.getName(), config.getBenchmarkTime());
+					subResults.put(transaction.getName(), subResult);
+				}
+				subResult.merge(transaction.getResult());
+			}
+		}
+		for (Result subResult : subResults.values())
 		{
-			Result subResult = transaction.getResult();
 			result.addSubResult(subResult);
 			log.finer("Erfolgreiche Transaktionen \"" + subResult.getName() + "\": " + subResult.getSuccessfullTransactions());
 			log.finer("Fehlgeschlagene Transaktionen \"" + subResult.getName() + "\": " + subResult.getFailedTransactions());
 			log.finer("Durschnittsdauer einer Transaktion in ms \"" + subResult.getName() + "\": " + subResult.getAverageDuration());
 			log.finer("Transaktionen pro Sekunde \"" + subResult.getName() + "\": " + subResult.getTransactionsPerSecond());
 		}
+		result.setTimeSeries(timeSeries);
 		log.fine("Erfolgreiche Transaktionen: " + result.getSuccessfullTransactions());
 		log.fine("Fehlgeschlagene Transaktionen: " + result.getFailedTransactions());
 		log.fine("Durschnittsdauer einer Transaktion in ms: " + result.getAverageDuration());
 		log.fine("Transaktionen pro Sekunde: " + result.getTransactionsPerSecond());
+		for (Worker worker : workers)
+		{
+			worker.getDatabase().logStatistics(log);
+		}
+		logHandler.flush();
 
 		return result;
 	}
 
 	/**
-	 * Diese Methode versucht eine Transaktion solange auszufhren, bis diese
-	 * vom DBMS serialisiert ausgefhrt werden konnte.
+	 * Bereitet den LoadDriver auf einen weiteren Lauf vor, ohne ihn neu zu
+	 * starten. Die Datenbankverbindungen werden neu aufgebaut, wenn sich
+	 * Datenbankklasse, JDBC-URL, Anzahl der Worker oder ein
+	 * benutzerdefinierter Parameter (user.*) ndert, da eine Datenbankklasse
+	 * diese typischerweise nur im Konstruktor bzw. beim Verbindungsaufbau
+	 * bernimmt.
 	 * 
-	 * Das ist notwendig, weil PostgreSQL eine Implementierung des Isolationslevels
-	 * SERIALIZABLE verwendet, die bei einem Serialisierungsfehler ein manuelles
-	 * Neustarten der Transaktion erfordert. Bei einem Serialisierungsfehler zwischen
-	 * zwei Transaktionen wird eine abgebrochen (mit SQLState 40001) und die andere
-	 * wird abgeschlossen. Der Serialisierungsfehler wird erst gemeldet, wenn die
-	 * andere Transaktion beendet wurde. Dadurch wird vermieden, dass derselbe Fehler
-	 * bei Neustart wieder auftritt.
-	 * 
-	 * @param transaction Transaktion, die ausgefhrt werden soll.
-	 * @throws Exception Im Fehlerfall.
+	 * @param config Konfiguration des nchsten Laufs
+	 * @throws Exception
 	 */
-	private void executeTransaction(Transaction transaction) throws Exception {
-		boolean serialized = false;
-		while (!serialized) {
-			serialized = tryExecute(transaction);
-		}
-	}
+	@Override
+	public synchronized void prepare(Configuration config) throws Exception
+	{
+		boolean reload = config.isReloadDatabase() || !config.getDatabaseClass().equals(this.config.getDatabaseClass())
+				|| !config.getDatabaseJDBC().equals(this.config.getDatabaseJDBC()) || config.getWorkers() != workers.size()
+				|| !config.getUserProperties().equals(this.config.getUserProperties());
+		this.config = config;
+		schedule = null;
+		arrivalRate = config.getArrivalRate();
+		arrivalRateVersion++;
+		log.setLevel(config.getLogLevel());
 
-	/**
-	 * Versucht eine Transaktion auszufhren.
-	 * 
-	 * @param transaction Transaktion, die ausgefhrt werden soll.
-	 * @return true, wenn die Transaktion erfolgreich ausgefhrt wurde.
-	 *         false, wenn ein Serialisierungsfehler aufgetreten ist.
-	 * @throws Exception Bei allen anderen Fehlern.
-	 */
-	private boolean tryExecute(Transaction transaction) throws Exception {
-		final String SERIALIZATION_FAILURE = "40001";
-		
-		try {
-			transaction.execute();
-			return true;
-		}
-		catch (SQLException e) {
-			if (e.getSQLState().equals(SERIALIZATION_FAILURE))
-				return false;
-			else
-				throw e;
-		}
-		catch (InvocationTargetException e) {
-			// Durch RMI kann die SQLException in einer InvocationTargetException
-			// verpackt sein
-			Throwable target = e.getTargetException();
-			if (target instanceof SQLException) {
-				SQLException s = (SQLException)target;
-				if (s.getSQLState().equals(SERIALIZATION_FAILURE))
-					return false;
-				else
-					throw e;
-			} else
-				throw e;
+		if (reload)
+		{
+			closeDatabase();
+			workers.clear();
+			if (config.isReloadDatabase())
+			{
+				closeClassLoader();
+				classLoader = new ReloadingClassLoader(config.getDatabaseClass(), LoadDriver.class.getClassLoader());
+			}
+			loadWorkers();
+			log.fine("Datenbankverbindungen neu aufgebaut");
+		} else
+		{
+			for (Worker worker : workers)
+			{
+				worker.prepare(config);
+			}
 		}
+
+		clockOffset = estimateClockOffset();
+		stage = STAGE.READY;
 	}
 
 	/**
@@ -265,7 +624,7 @@ public class LoadDriver extends UnicastRemoteObject implements LoadDriverIF
 	@Override
 	public STAGE getStage() throws RemoteException
 	{
-		return stage;
+		return getStage(System.nanoTime());
 	}
 
 	/**
@@ -280,6 +639,67 @@ public class LoadDriver extends UnicastRemoteObject implements LoadDriverIF
 		this.stage = stage;
 	}
 
+	/**
+	 * ndert die Ankunftsrate der offenen Lastschleife whrend des Laufs. Die
+	 * Worker bzw. Terminals beginnen vor ihrer nchsten Transaktion einen
+	 * neuen Ablaufplan, sodass ein Rckstand bei der alten Rate verfllt.
+	 * 
+	 * @param rate Ankunftsrate in Transaktionen pro Sekunde fr den gesamten
+	 *        Benchmark (0 = geschlossene Lastschleife)
+	 * @throws RemoteException
+	 */
+	@Override
+	public synchronized void setArrivalRate(double rate) throws RemoteException
+	{
+		arrivalRate = Math.max(0, rate);
+		arrivalRateVersion++;
+		log.fine("Ankunftsrate: " + arrivalRate);
+	}
+
+	/**
+	 * Gibt die Version der Ankunftsrate zurck, die bei jeder nderung erhht
+	 * wird.
+	 * 
+	 * @return Version
+	 */
+	public int getArrivalRateVersion()
+	{
+		return arrivalRateVersion;
+	}
+
+	/**
+	 * Legt den Ablaufplan des Benchmarks fest und rechnet ihn in die Uhr des
+	 * LoadDrivers um.
+	 * 
+	 * @param schedule Ablaufplan in der Uhr des Benchmark Controllers
+	 * @throws RemoteException
+	 */
+	@Override
+	public void setSchedule(PhaseSchedule schedule) throws RemoteException
+	{
+		this.schedule = schedule.shift(clockOffset);
+		log.fine("Ablaufplan: " + schedule);
+	}
+
+	/**
+	 * Gibt ein Zwischenergebnis whrend des laufenden Benchmarks zurck.
+	 * 
+	 * @param since Zeitpunkt in ms seit 1970 (UTC)
+	 * @return Zeitreihe
+	 * @throws RemoteException
+	 */
+	@Override
+	public TimeSeries getInterimResult(long since) throws RemoteException
+	{
+		TimeSeries timeSeries = new TimeSeries(config.getTimeSeriesInterval());
+		long now = toClock(System.nanoTime()) / 1000000L;
+		for (Worker worker : workers)
+		{
+			timeSeries.add(worker.getTimeSeries().snapshot(since, now));
+		}
+		return timeSeries;
+	}
+
 	/**
 	 * Hauptprogramm zum Starten eines LoadDrivers.
 	 * 
@@ -289,7 +709,29 @@ public class LoadDriver extends UnicastRemoteObject implements LoadDriverIF
 	{
 		try
 		{
-			new LoadDriver();
+			// In einer Kampagne registriert sich der LoadDriver nach jedem Lauf
+			// erneut und erhlt dabei die Konfiguration des nchsten Laufs
+			while (true)
+			{
+				LoadDriver loadDriver;
+				try
+				{
+					loadDriver = new LoadDriver();
+				} catch (AlreadyBoundException e)
+				{
+					// Der aktuelle Lauf bentigt weniger LoadDriver
+					if (!hasNextRun(null))
+					{
+						System.out.println("Der Benchmark bentigt keine weiteren LoadDriver.");
+						return;
+					}
+					Thread.sleep(1000);
+					continue;
+				}
+				loadDriver.closed.await();
+				if (!hasNextRun(loadDriver.benchmark))
+					return;
+			}
 		} catch (Exception e)
 		{
 			e.printStackTrace();
@@ -297,4 +739,34 @@ public class LoadDriver extends UnicastRemoteObject implements LoadDriverIF
 		}
 	}
 
+	/**
+	 * Fragt beim Benchmark Controller nach, ob ein weiterer Lauf folgt.
+	 * 
+	 * @param benchmark Benchmark Controller oder null, um ihn in der
+	 *        RMI-Registry nachzuschlagen
+	 * @return Wahrheitswert; false, falls der Controller nicht mehr
+	 *         erreichbar ist
+	 * @throws Exception
+	 */
+	protected static boolean hasNextRun(BenchmarkIF benchmark) throws Exception
+	{
+		try
+		{
+			if (benchmark == null)
+			{
+				Configuration config = new Configuration();
+				config.loadRMIConfiguration();
+				benchmark = (BenchmarkIF) LocateRegistry.getRegistry(config.getRegistryHost(), config.getRegistryPort()).lookup(
+						Configuration.BENCHMARK_NAME);
+			}
+			return benchmark.hasNextRun();
+		} catch (RemoteException e)
+		{
+			return false;
+		} catch (NotBoundException e)
+		{
+			return false;
+		}
+	}
+
 }
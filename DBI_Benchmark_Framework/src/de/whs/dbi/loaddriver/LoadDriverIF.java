@@ -6,13 +6,28 @@ import java.sql.SQLException;
 import java.util.concurrent.Callable;
 
 import de.whs.dbi.benchmark.BenchmarkIF.STAGE;
+import de.whs.dbi.util.Configuration;
+import de.whs.dbi.util.PhaseSchedule;
 import de.whs.dbi.util.Result;
+import de.whs.dbi.util.TimeSeries;
 
 /**
  * LoadDriverIF beschreibt die Schnittstelle eines Load Drivers.
  */
 public interface LoadDriverIF extends Remote, Callable<Result>
 {
+	/**
+	 * Fhrt den Benchmark aus und gibt das Ergebnis zurck.
+	 * 
+	 * Die Methode wird hier erneut deklariert, da RMI nur Methoden aus
+	 * Remote-Schnittstellen aufruft.
+	 * 
+	 * @return Ergebnis
+	 * @throws Exception
+	 */
+	@Override
+	public Result call() throws Exception;
+
 	/**
 	 * De-Registriert den LoadDriver.
 	 * 
@@ -21,6 +36,19 @@ public interface LoadDriverIF extends Remote, Callable<Result>
 	 */
 	public void close() throws RemoteException, SQLException;
 
+	/**
+	 * Bereitet den LoadDriver auf einen weiteren Lauf vor, ohne ihn neu zu
+	 * starten. Die Ergebnisse werden zurckgesetzt und das Lastprofil neu
+	 * geladen; die Datenbankverbindungen bleiben bestehen, sofern sich
+	 * Datenbankklasse, JDBC-URL, Anzahl der Worker und die
+	 * benutzerdefinierten Parameter (user.*) nicht ndern und das erneute
+	 * Laden der Datenbankklasse nicht konfiguriert ist.
+	 * 
+	 * @param config Konfiguration des nchsten Laufs
+	 * @throws Exception
+	 */
+	public void prepare(Configuration config) throws Exception;
+
 	/**
 	 * Gibt die aktuelle Phase zurck.
 	 * 
@@ -30,12 +58,39 @@ public interface LoadDriverIF extends Remote, Callable<Result>
 	public STAGE getStage() throws RemoteException;
 
 	/**
-	 * Legt die aktuelle Phase fest.
+	 * Legt die aktuelle Phase fest. Die Phasen eines Laufs ergeben sich aus
+	 * dem Ablaufplan; mit FINISHED kann der Lauf vorzeitig beendet werden.
 	 * 
 	 * @param stage Phase
 	 * @throws RemoteException
 	 */
 	public void setStage(STAGE stage) throws RemoteException;
-	
-	// TODO Methode, um Zwischenresultat abzufragen=???
+
+	/**
+	 * Legt den Ablaufplan des Benchmarks fest.
+	 * 
+	 * @param schedule Ablaufplan in der Uhr des Benchmark Controllers
+	 * @throws RemoteException
+	 */
+	public void setSchedule(PhaseSchedule schedule) throws RemoteException;
+
+	/**
+	 * ndert die Ankunftsrate der offenen Lastschleife whrend des Laufs.
+	 * 
+	 * @param rate Ankunftsrate in Transaktionen pro Sekunde fr den gesamten
+	 *        Benchmark (0 = geschlossene Lastschleife)
+	 * @throws RemoteException
+	 */
+	public void setArrivalRate(double rate) throws RemoteException;
+
+	/**
+	 * Gibt ein Zwischenergebnis whrend des laufenden Benchmarks zurck. Es
+	 * enthlt die abgeschlossenen Intervalle der Zeitreihen aller Worker ab
+	 * einem Zeitpunkt, sodass nur neue Intervalle bertragen werden.
+	 * 
+	 * @param since Zeitpunkt in ms seit 1970 (UTC)
+	 * @return Zeitreihe
+	 * @throws RemoteException
+	 */
+	public TimeSeries getInterimResult(long since) throws RemoteException;
 }
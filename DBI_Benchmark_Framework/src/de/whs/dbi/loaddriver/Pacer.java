@@ -0,0 +1,50 @@
+package de.whs.dbi.loaddriver;
+
+/**
+ * Ein Pacer wartet in der geschlossenen Lastschleife zwischen zwei
+ * Transaktionen eines Workers bzw. Terminals. Die Bedenkzeit wird aus einer
+ * Verteilung mit dem Mittelwert der zuletzt ausgefhrten Transaktion gezogen.
+ * 
+ * Im Zyklusmodus gilt die gezogene Zeit ab dem Start der Transaktion, sodass
+ * der Abstand zwischen zwei Startzeitpunkten unabhngig von der Dauer der
+ * Transaktion ist. Dauert eine Transaktion lnger, beginnt die nchste sofort.
+ */
+public class Pacer
+{
+	protected ThinkTime thinkTime;
+	protected double[] means;
+	protected boolean cycle;
+
+	/**
+	 * Der Konstruktor initialisiert den Pacer.
+	 * 
+	 * @param thinkTime Verteilung der Bedenkzeit
+	 * @param means Mittelwerte der Bedenkzeit je Transaktion in ns
+	 * @param cycle true, falls die Bedenkzeit als Zykluszeit ab dem Start der
+	 *        Transaktion gilt
+	 */
+	public Pacer(ThinkTime thinkTime, double[] means, boolean cycle)
+	{
+		this.thinkTime = thinkTime;
+		this.means = means;
+		this.cycle = cycle;
+	}
+
+	/**
+	 * Wartet nach einer Transaktion bis zum Start der nchsten.
+	 * 
+	 * @param transaction Index der ausgefhrten Transaktion
+	 * @param start Startzeitpunkt der ausgefhrten Transaktion (System.nanoTime())
+	 * @throws InterruptedException
+	 */
+	public void pace(int transaction, long start) throws InterruptedException
+	{
+		double mean = means[transaction];
+		if (mean <= 0)
+			return;
+
+		long delay = thinkTime.next(mean, ParameterGenerator.getRandom());
+		ArrivalSchedule.parkUntil((cycle ? start : System.nanoTime()) + delay);
+	}
+
+}
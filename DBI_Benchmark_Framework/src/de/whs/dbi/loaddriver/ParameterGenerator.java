@@ -10,9 +10,18 @@ public class ParameterGenerator
 {
 
 	/**
-	 * Random number generator
+	 * Random number generator je Thread. Worker und Terminals setzen zu Beginn
+	 * ihren eigenen, aus random.seed abgeleiteten Teilstrom. Alle anderen
+	 * Threads erhalten einen zufllig initialisierten Generator.
 	 */
-	protected static Random random = new Random();
+	protected static ThreadLocal<Random> random = new ThreadLocal<Random>()
+	{
+		@Override
+		protected Random initialValue()
+		{
+			return new SplitMixRandom(System.nanoTime() ^ Thread.currentThread().getId());
+		}
+	};
 
 	/**
 	 * Zeichen, die bei der Generierung von zuflligen Strings verwendet werden
@@ -20,13 +29,23 @@ public class ParameterGenerator
 	protected static final char[] chars = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
 
 	/**
-	 * Gibt den den Random number generator zurck.
+	 * Gibt den den Random number generator des aktuellen Threads zurck.
 	 * 
 	 * @return Random number generator
 	 */
 	public static Random getRandom()
 	{
-		return random;
+		return random.get();
+	}
+
+	/**
+	 * Legt den Random number generator des aktuellen Threads fest.
+	 * 
+	 * @param generator Random number generator
+	 */
+	public static void setRandom(Random generator)
+	{
+		random.set(generator);
 	}
 
 	/**
@@ -43,7 +62,7 @@ public class ParameterGenerator
 			throw new IllegalArgumentException();
 		}
 
-		return min + random.nextInt(max - min + 1);
+		return min + getRandom().nextInt(max - min + 1);
 	}
 
 	/**
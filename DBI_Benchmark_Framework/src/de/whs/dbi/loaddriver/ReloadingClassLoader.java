@@ -0,0 +1,108 @@
+package de.whs.dbi.loaddriver;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * Ein ReloadingClassLoader ldt die Datenbankklasse und die brigen Klassen
+ * ihres Pakets erneut aus dem Klassenpfad, statt sie vom bergeordneten
+ * ClassLoader zu bernehmen. Ein LoadDriver, der zwischen zwei Lufen nicht
+ * neu gestartet wird, verwendet so eine neu bersetzte Datenbankklasse.
+ * 
+ * Die Klassen des Frameworks bis auf den {@link TransactionBinder} und alle
+ * anderen Klassen (z. B. JDBC-Treiber) werden weiterhin vom bergeordneten
+ * ClassLoader geladen, damit die Datenbankklasse mit dem Framework kompatibel
+ * bleibt.
+ */
+public class ReloadingClassLoader extends URLClassLoader
+{
+	/**
+	 * Paket des Frameworks, das nie erneut geladen wird
+	 */
+	protected final static String FRAMEWORK_PACKAGE = "de.whs.dbi.";
+
+	/**
+	 * Klasse des Frameworks, die zusammen mit der Datenbankklasse erneut
+	 * geladen wird, damit sie deren Transaktionen binden kann
+	 */
+	protected final static String BINDER_CLASS = TransactionBinder.class.getName();
+
+	protected String className;
+	protected String packagePrefix;
+
+	/**
+	 * Der Konstruktor initialisiert den ClassLoader mit dem Klassenpfad der
+	 * laufenden JVM.
+	 * 
+	 * @param className Name der Datenbankklasse (voll qualifiziert)
+	 * @param parent bergeordneter ClassLoader
+	 * @throws MalformedURLException
+	 */
+	public ReloadingClassLoader(String className, ClassLoader parent) throws MalformedURLException
+	{
+		super(getClassPath(), parent);
+		this.className = className;
+		int dot = className.lastIndexOf('.');
+		this.packagePrefix = dot < 0 ? null : className.substring(0, dot + 1);
+	}
+
+	@Override
+	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException
+	{
+		if (!isReloaded(name))
+			return super.loadClass(name, resolve);
+
+		synchronized (getClassLoadingLock(name))
+		{
+			Class<?> c = findLoadedClass(name);
+			if (c == null)
+			{
+				try
+				{
+					c = findClass(name);
+				} catch (ClassNotFoundException e)
+				{
+					c = super.loadClass(name, false);
+				}
+			}
+			if (resolve)
+				resolveClass(c);
+			return c;
+		}
+	}
+
+	/**
+	 * Prft, ob eine Klasse von diesem ClassLoader erneut geladen wird.
+	 * 
+	 * @param name Name der Klasse
+	 * @return Wahrheitswert
+	 */
+	protected boolean isReloaded(String name)
+	{
+		if (name.equals(className) || name.startsWith(className + "$"))
+			return true;
+		if (name.equals(BINDER_CLASS) || name.startsWith(BINDER_CLASS + "$"))
+			return true;
+		return packagePrefix != null && name.startsWith(packagePrefix) && !name.startsWith(FRAMEWORK_PACKAGE);
+	}
+
+	/**
+	 * Gibt die Eintrge des Klassenpfads der laufenden JVM zurck.
+	 * 
+	 * @return URLs
+	 * @throws MalformedURLException
+	 */
+	protected static URL[] getClassPath() throws MalformedURLException
+	{
+		String[] entries = System.getProperty("java.class.path").split(File.pathSeparator);
+		URL[] urls = new URL[entries.length];
+		for (int i = 0; i < entries.length; i++)
+		{
+			urls[i] = new File(entries[i]).toURI().toURL();
+		}
+		return urls;
+	}
+
+}
@@ -0,0 +1,138 @@
+package de.whs.dbi.loaddriver;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import de.whs.dbi.util.Configuration;
+
+/**
+ * Eine RetryPolicy legt fest, nach welchen Fehlern eine Transaktion wiederholt
+ * wird, wie oft sie hchstens versucht wird und wie lange vor einer
+ * Wiederholung gewartet wird.
+ * 
+ * Die Wartezeit wchst exponentiell mit der Anzahl der Versuche bis zu einer
+ * Obergrenze. Mit Jitter wird sie zufllig zwischen 0 und diesem Wert
+ * gewhlt ("full jitter"), damit sich kollidierende Transaktionen nicht im
+ * gleichen Takt erneut behindern.
+ */
+public class RetryPolicy
+{
+	protected Set<String> retryableStates;
+	protected int maxAttempts;
+	protected long baseBackoff;
+	protected long maxBackoff;
+	protected boolean jitter;
+
+	/**
+	 * Der Konstruktor initialisiert die Wiederholungsstrategie aus der
+	 * Konfiguration.
+	 * 
+	 * @param config Konfiguration
+	 */
+	public RetryPolicy(Configuration config)
+	{
+		this(config.getRetryStates(), config.getRetryAttempts(), Math.round(config.getRetryBackoff() * 1000000.0),
+				Math.round(config.getRetryBackoffMax() * 1000000.0), config.getRetryJitter());
+	}
+
+	/**
+	 * Der Konstruktor initialisiert die Wiederholungsstrategie.
+	 * 
+	 * @param retryableStates SQLStates, nach denen wiederholt wird
+	 * @param maxAttempts Maximale Anzahl der Versuche (0 = unbegrenzt)
+	 * @param baseBackoff Wartezeit vor der ersten Wiederholung in ns
+	 * @param maxBackoff Maximale Wartezeit in ns
+	 * @param jitter true, falls die Wartezeit zufllig gewhlt wird
+	 */
+	public RetryPolicy(String[] retryableStates, int maxAttempts, long baseBackoff, long maxBackoff, boolean jitter)
+	{
+		this.retryableStates = new HashSet<String>(Arrays.asList(retryableStates));
+		this.maxAttempts = maxAttempts;
+		this.baseBackoff = baseBackoff;
+		this.maxBackoff = Math.max(baseBackoff, maxBackoff);
+		this.jitter = jitter;
+	}
+
+	/**
+	 * Prft, ob eine Transaktion nach einem Fehler wiederholt werden kann.
+	 * 
+	 * @param e Fehler
+	 * @return Wahrheitswert
+	 */
+	public boolean isRetryable(SQLException e)
+	{
+		return e.getSQLState() != null && retryableStates.contains(e.getSQLState());
+	}
+
+	/**
+	 * Prft, ob ein weiterer Versuch erlaubt ist.
+	 * 
+	 * @param attempt Nummer des Versuchs (beginnend bei 1)
+	 * @return Wahrheitswert
+	 */
+	public boolean allowsAttempt(int attempt)
+	{
+		return maxAttempts <= 0 || attempt <= maxAttempts;
+	}
+
+	/**
+	 * Berechnet die Wartezeit vor einer Wiederholung.
+	 * 
+	 * @param attempt Nummer des fehlgeschlagenen Versuchs (beginnend bei 1)
+	 * @param random Random number generator fr den Jitter
+	 * @return Wartezeit in ns
+	 */
+	public long getBackoff(int attempt, Random random)
+	{
+		if (baseBackoff <= 0)
+			return 0;
+
+		long backoff = baseBackoff;
+		for (int i = 1; i < attempt && backoff < maxBackoff; i++)
+		{
+			backoff <<= 1;
+		}
+		backoff = Math.min(backoff, maxBackoff);
+		if (jitter)
+			backoff = (long) (random.nextDouble() * backoff);
+		return backoff;
+	}
+
+	/**
+	 * Wartet vor einer Wiederholung.
+	 * 
+	 * @param attempt Nummer des fehlgeschlagenen Versuchs (beginnend bei 1)
+	 * @param random Random number generator fr den Jitter
+	 * @throws InterruptedException
+	 */
+	public void backoff(int attempt, Random random) throws InterruptedException
+	{
+		long backoff = getBackoff(attempt, random);
+		if (backoff > 0)
+			ArrivalSchedule.parkUntil(System.nanoTime() + backoff);
+	}
+
+	/**
+	 * Gibt die SQLStates zurck, nach denen wiederholt wird.
+	 * 
+	 * @return SQLStates
+	 */
+	public Set<String> getRetryableStates()
+	{
+		return retryableStates;
+	}
+
+	/**
+	 * Gibt die maximale Anzahl der Versuche zurck.
+	 * 
+	 * @return Anzahl (0 = unbegrenzt)
+	 */
+	public int getMaxAttempts()
+	{
+		return maxAttempts;
+	}
+
+}
@@ -0,0 +1,94 @@
+package de.whs.dbi.loaddriver;
+
+import java.util.Random;
+
+/**
+ * SplitMixRandom ist ein Zufallszahlengenerator nach dem SplitMix64-Verfahren.
+ * Im Gegensatz zu java.util.Random ist der Zustand ein einfacher Zhler ohne
+ * atomare Operationen. Ein Generator darf daher nur von einem Thread genutzt
+ * werden, verursacht dafr aber keine Konkurrenz zwischen den Threads.
+ * 
+ * Aus einem Generator lassen sich mit {@link #split(long)} deterministisch
+ * unabhngige Teilstrme ableiten, z. B. einer je LoadDriver und Worker.
+ */
+public class SplitMixRandom extends Random
+{
+	private static final long serialVersionUID = -2206563470817225416L;
+
+	/**
+	 * Inkrement des Zhlers (ungerade Konstante aus dem goldenen Schnitt)
+	 */
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	/**
+	 * Startwert, aus dem die Teilstrme abgeleitet werden
+	 */
+	private long seed;
+
+	/**
+	 * Aktueller Zustand
+	 */
+	private long state;
+
+	/**
+	 * Der Konstruktor initialisiert den Generator mit einem Startwert.
+	 * 
+	 * @param seed Startwert
+	 */
+	public SplitMixRandom(long seed)
+	{
+		super(seed);
+	}
+
+	/**
+	 * Setzt den Generator auf einen Startwert zurck. Wird auch vom
+	 * Konstruktor von java.util.Random aufgerufen.
+	 * 
+	 * @param seed Startwert
+	 */
+	@Override
+	public void setSeed(long seed)
+	{
+		this.seed = seed;
+		this.state = seed;
+	}
+
+	/**
+	 * Leitet deterministisch einen unabhngigen Teilstrom ab. Gleicher
+	 * Startwert und gleiche Nummer ergeben immer dieselbe Zahlenfolge.
+	 * 
+	 * @param stream Nummer des Teilstroms
+	 * @return Generator des Teilstroms
+	 */
+	public SplitMixRandom split(long stream)
+	{
+		return new SplitMixRandom(mix64(seed ^ mix64(stream * GOLDEN_GAMMA + GOLDEN_GAMMA)));
+	}
+
+	@Override
+	public long nextLong()
+	{
+		state += GOLDEN_GAMMA;
+		return mix64(state);
+	}
+
+	@Override
+	protected int next(int bits)
+	{
+		return (int) (nextLong() >>> (64 - bits));
+	}
+
+	/**
+	 * Mischfunktion von SplitMix64 (Variante 13 nach Stafford).
+	 * 
+	 * @param z Eingabe
+	 * @return Gemischter Wert
+	 */
+	private static long mix64(long z)
+	{
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+}
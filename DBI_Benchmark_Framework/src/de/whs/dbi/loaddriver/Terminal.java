@@ -0,0 +1,91 @@
+package de.whs.dbi.loaddriver;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+
+/**
+ * Ein Terminal emuliert einen einzelnen Client (z. B. einen Bankschalter).
+ * Im Gegensatz zu einem Worker besitzt ein Terminal keine eigene
+ * Datenbankverbindung, sondern leiht sich fr jede Transaktion einen Worker
+ * aus dem Pool des LoadDrivers. Whrend der Bedenkzeit ist die Verbindung
+ * damit fr andere Terminals frei.
+ * 
+ * Terminals werden nach Mglichkeit als virtuelle Threads ausgefhrt, sodass
+ * auch tausende Terminals je LoadDriver mglich sind.
+ */
+public class Terminal implements Callable<Void>
+{
+	protected LoadDriver loadDriver;
+	protected int terminalID;
+	protected BlockingQueue<Worker> pool;
+
+	/**
+	 * Der Konstruktor initialisiert das Terminal.
+	 * 
+	 * @param loadDriver LoadDriver, zu dem das Terminal gehrt
+	 * @param terminalID ID des Terminals innerhalb des LoadDrivers
+	 * @param pool Pool der Worker mit den Datenbankverbindungen
+	 */
+	public Terminal(LoadDriver loadDriver, int terminalID, BlockingQueue<Worker> pool)
+	{
+		this.loadDriver = loadDriver;
+		this.terminalID = terminalID;
+		this.pool = pool;
+	}
+
+	/**
+	 * Gibt die ID des Terminals zurck.
+	 * 
+	 * @return ID
+	 */
+	public int getTerminalID()
+	{
+		return terminalID;
+	}
+
+	/**
+	 * Fhrt das Lastprofil bis zum Ende des Benchmarks aus. Die Ergebnisse
+	 * werden in den Transaktionsobjekten der ausgeliehenen Worker erfasst.
+	 * 
+	 * @return null
+	 * @throws Exception
+	 */
+	@Override
+	public Void call() throws Exception
+	{
+		ParameterGenerator.setRandom(loadDriver.createRandom(terminalID));
+
+		loadDriver.awaitStart();
+		int rateVersion = loadDriver.getArrivalRateVersion();
+		ArrivalSchedule schedule = loadDriver.createArrivalSchedule();
+		Pacer pacer = loadDriver.createPacer();
+		while (!loadDriver.isFinished())
+		{
+			if (rateVersion != loadDriver.getArrivalRateVersion())
+			{
+				rateVersion = loadDriver.getArrivalRateVersion();
+				schedule = loadDriver.createArrivalSchedule();
+			}
+			// In der offenen Lastschleife zhlt auch das Warten auf eine
+			// freie Verbindung zur Dauer der Transaktion
+			long start = schedule != null ? schedule.awaitNext() : 0;
+
+			// Eine Verbindung wird nur fr die Dauer der Transaktion belegt
+			Worker worker = pool.take();
+			int transaction;
+			try
+			{
+				if (schedule == null)
+					start = System.nanoTime();
+				transaction = worker.executeNextTransaction(start);
+			} finally
+			{
+				pool.put(worker);
+			}
+			if (schedule == null)
+				pacer.pace(transaction, start);
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,18 @@
+package de.whs.dbi.loaddriver;
+
+import java.util.Random;
+
+/**
+ * ThinkTime beschreibt die Verteilung der Bedenkzeit eines emulierten Clients.
+ */
+public interface ThinkTime
+{
+	/**
+	 * Zieht eine Bedenkzeit.
+	 * 
+	 * @param mean Mittelwert in ns
+	 * @param random Random number generator
+	 * @return Bedenkzeit in ns
+	 */
+	public long next(double mean, Random random);
+}
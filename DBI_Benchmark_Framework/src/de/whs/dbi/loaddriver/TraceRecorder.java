@@ -0,0 +1,207 @@
+package de.whs.dbi.loaddriver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import de.whs.dbi.benchmark.BenchmarkIF.STAGE;
+
+/**
+ * Ein TraceRecorder schreibt jede Transaktion eines Workers als Datensatz
+ * fester Lnge in eine Datei, die in den Speicher abgebildet wird (memory
+ * mapped file). Das Schreiben eines Datensatzes erzeugt keine Objekte und
+ * erfordert keinen Systemaufruf. Ist die Datei voll, werden weitere
+ * Datenstze verworfen und gezhlt.
+ * 
+ * Aufbau der Datei: ein Kopf von {@link #HEADER_SIZE} Bytes mit Kennung,
+ * Version, IDs, Anzahl der Datenstze, Anzahl der verworfenen Datenstze und
+ * den Namen der Transaktionen, gefolgt von den Datenstzen mit je
+ * {@link #RECORD_SIZE} Bytes:
+ * 
+ * <pre>
+ *  0 long  Startzeitpunkt in ns seit 1970 (UTC, Uhr des Controllers)
+ *  8 long  Dauer in ns
+ * 16 int   Anzahl der Wiederholungen
+ * 20 short Index der Transaktion
+ * 22 byte  Ausgang (0 = erfolgreich, 1 = fehlgeschlagen)
+ * 23 byte  Phase (Ordinalzahl von STAGE)
+ * 24 byte[5] SQLState bei Fehlern (ASCII, sonst 0)
+ * </pre>
+ * 
+ * Alle Zahlen werden im Big-Endian-Format geschrieben.
+ */
+public class TraceRecorder
+{
+	/**
+	 * Kennung am Anfang einer Trace-Datei ("DBITRACE")
+	 */
+	public final static long MAGIC = 0x4442495452414345L;
+
+	public final static int VERSION = 1;
+	public final static int HEADER_SIZE = 4096;
+	public final static int RECORD_SIZE = 32;
+
+	public final static int COUNT_OFFSET = 24;
+	public final static int DROPPED_OFFSET = 32;
+	public final static int NAMES_OFFSET = 40;
+
+	public final static byte OUTCOME_COMMIT = 0;
+	public final static byte OUTCOME_FAILURE = 1;
+
+	protected final static Charset UTF8 = Charset.forName("UTF-8");
+
+	protected RandomAccessFile file;
+	protected MappedByteBuffer buffer;
+	protected long capacity;
+	protected long count = 0;
+	protected long dropped = 0;
+
+	/**
+	 * Differenz zwischen der Uhr des Benchmark Controllers in ns und
+	 * System.nanoTime()
+	 */
+	protected long clockOffset;
+
+	/**
+	 * Der Konstruktor legt die Datei an und schreibt den Kopf.
+	 * 
+	 * @param path Datei
+	 * @param loadDriverID ID des LoadDrivers
+	 * @param workerID ID des Workers
+	 * @param transactions Namen der Transaktionen in der Reihenfolge ihrer Indizes
+	 * @param capacity Maximale Anzahl der Datenstze
+	 * @param clockOffset Abstand der Uhr, in der die Startzeitpunkte
+	 *        geschrieben werden, zu System.nanoTime() in ns
+	 * @throws IOException
+	 */
+	public TraceRecorder(File path, int loadDriverID, int workerID, List<String> transactions, int capacity, long clockOffset)
+			throws IOException
+	{
+		if (capacity <= 0 || capacity > (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE)
+		{
+			throw new IllegalArgumentException();
+		}
+		this.capacity = capacity;
+
+		File parent = path.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.isDirectory() && !parent.mkdirs())
+		{
+			throw new IOException("Verzeichnis kann nicht angelegt werden: " + parent);
+		}
+
+		file = new RandomAccessFile(path, "rw");
+		file.setLength(0);
+		buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) RECORD_SIZE * capacity);
+
+		this.clockOffset = clockOffset;
+
+		buffer.putLong(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putInt(loadDriverID);
+		buffer.putInt(workerID);
+		buffer.putInt(RECORD_SIZE);
+		buffer.putLong(0);
+		buffer.putLong(0);
+		buffer.putInt(transactions.size());
+		for (String name : transactions)
+		{
+			byte[] bytes = name.getBytes(UTF8);
+			if (buffer.position() + 2 + bytes.length > HEADER_SIZE)
+			{
+				throw new IOException("Zu viele Transaktionen fr den Kopf der Trace-Datei");
+			}
+			buffer.putShort((short) bytes.length);
+			buffer.put(bytes);
+		}
+	}
+
+	/**
+	 * Schreibt einen Datensatz.
+	 * 
+	 * @param start Startzeitpunkt (System.nanoTime())
+	 * @param duration Dauer in ns
+	 * @param transaction Index der Transaktion
+	 * @param failed true, falls die Transaktion fehlgeschlagen ist
+	 * @param retries Anzahl der Wiederholungen
+	 * @param stage Phase
+	 * @param sqlState SQLState oder null
+	 */
+	public void record(long start, long duration, int transaction, boolean failed, int retries, STAGE stage, String sqlState)
+	{
+		if (count >= capacity)
+		{
+			buffer.putLong(DROPPED_OFFSET, ++dropped);
+			return;
+		}
+
+		int position = (int) (HEADER_SIZE + count * RECORD_SIZE);
+		buffer.putLong(position, start + clockOffset);
+		buffer.putLong(position + 8, duration);
+		buffer.putInt(position + 16, retries);
+		buffer.putShort(position + 20, (short) transaction);
+		buffer.put(position + 22, failed ? OUTCOME_FAILURE : OUTCOME_COMMIT);
+		buffer.put(position + 23, (byte) stage.ordinal());
+		for (int i = 0; i < 5; i++)
+		{
+			buffer.put(position + 24 + i, sqlState != null && i < sqlState.length() ? (byte) sqlState.charAt(i) : 0);
+		}
+		buffer.putLong(COUNT_OFFSET, ++count);
+	}
+
+	/**
+	 * Gibt die Anzahl der geschriebenen Datenstze zurck.
+	 * 
+	 * @return Anzahl
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Gibt die Anzahl der verworfenen Datenstze zurck.
+	 * 
+	 * @return Anzahl
+	 */
+	public long getDropped()
+	{
+		return dropped;
+	}
+
+	/**
+	 * Gibt das Verzeichnis fr die Trace-Dateien eines Laufs zurck. Jeder Lauf
+	 * erhlt ein eigenes Unterverzeichnis, das nach dem Beginn der Phase
+	 * WARMUP (UTC) benannt ist, sodass Controller und LoadDriver unabhngig
+	 * von ihrer Zeitzone denselben Namen bilden.
+	 * 
+	 * @param directory Konfiguriertes Verzeichnis (trace.dir)
+	 * @param start Beginn der Phase WARMUP in ns seit 1970 (UTC, Uhr des
+	 *        Controllers)
+	 * @return Verzeichnis des Laufs
+	 */
+	public static File getRunDirectory(String directory, long start)
+	{
+		SimpleDateFormat format = new SimpleDateFormat("'run_'yyyyMMdd_HHmmss_SSS");
+		format.setTimeZone(TimeZone.getTimeZone("UTC"));
+		return new File(directory, format.format(new Date(start / 1000000L)));
+	}
+
+	/**
+	 * Schreibt die Datenstze auf die Festplatte und schliet die Datei.
+	 * 
+	 * @throws IOException
+	 */
+	public void close() throws IOException
+	{
+		buffer.force();
+		file.close();
+	}
+
+}
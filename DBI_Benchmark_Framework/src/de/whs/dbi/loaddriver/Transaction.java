@@ -1,7 +1,5 @@
 package de.whs.dbi.loaddriver;
 
-import java.lang.reflect.Method;
-
 import de.whs.dbi.util.Result;
 
 /**
@@ -12,19 +10,22 @@ import de.whs.dbi.util.Result;
 public class Transaction
 {
 	protected Database database;
-	protected Method method;
+	protected String name;
+	protected final TransactionMethod method;
 	protected Result result;
 
 	/**
 	 * Der Konstruktor initialisiert eine Transaktion.
 	 * 
 	 * @param database Datenbank
-	 * @param method Methode der Transaktion
+	 * @param name Name der Transaktion
+	 * @param method An die Datenbank gebundene Methode der Transaktion
 	 * @param benchmarkTime Dauer der Benchmark-Phase in ms
 	 */
-	public Transaction(Database database, Method method, int benchmarkTime)
+	public Transaction(Database database, String name, TransactionMethod method, int benchmarkTime)
 	{
 		this.database = database;
+		this.name = name;
 		this.method = method;
 		this.result = new Result(getName(), benchmarkTime);
 	}
@@ -40,7 +41,7 @@ public class Transaction
 
 		try
 		{
-			method.invoke(database);
+			invoke();
 		} catch (Exception e)
 		{
 			database.rollbackTransaction();
@@ -50,6 +51,18 @@ public class Transaction
 		database.commitTransaction();
 	}
 
+	/**
+	 * Ruft die gebundene Methode der Transaktion auf. Ausnahmen der Methode,
+	 * insbesondere SQLExceptions, werden dabei nicht verpackt, sondern
+	 * unverndert weitergegeben.
+	 * 
+	 * @throws Exception
+	 */
+	protected void invoke() throws Exception
+	{
+		method.invoke();
+	}
+
 	/**
 	 * Gibt den Namen der Transaktion zurck.
 	 * 
@@ -57,7 +70,7 @@ public class Transaction
 	 */
 	public String getName()
 	{
-		return method.getName();
+		return name;
 	}
 
 	/**
@@ -0,0 +1,113 @@
+package de.whs.dbi.loaddriver;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Die Klasse TransactionBinder bindet die Methode einer Transaktion an eine
+ * Datenbank.
+ * 
+ * Ab Java 8 erzeugt sie ber die LambdaMetafactory eine Klasse, die die
+ * Methode direkt aufruft, sodass der JIT-Compiler den Aufruf wie einen
+ * gewhnlichen virtuellen Aufruf inlinen kann. Die LambdaMetafactory wird ber
+ * Reflection angesprochen, damit das Framework auch mit Java 7 bersetzt
+ * werden kann; dort wird die Methode als MethodHandle aufgerufen.
+ * 
+ * Die erzeugte Klasse entsteht im ClassLoader dieser Klasse und muss die
+ * Datenbankklasse sehen knnen. Wird die Datenbankklasse von einem
+ * {@link ReloadingClassLoader} geladen, ldt dieser deshalb auch den
+ * TransactionBinder erneut.
+ */
+public final class TransactionBinder
+{
+	private TransactionBinder()
+	{
+	}
+
+	/**
+	 * Bindet eine Methode ohne Parameter an eine Datenbank. Ein mglicher
+	 * Rckgabewert wird verworfen.
+	 * 
+	 * @param database Datenbank
+	 * @param method Methode der Transaktion
+	 * @return Gebundene Methode
+	 * @throws IllegalAccessException
+	 */
+	public static TransactionMethod bind(Database database, Method method) throws IllegalAccessException
+	{
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		MethodHandle target = lookup.unreflect(method);
+
+		TransactionMethod lambda = createLambda(lookup, target, database);
+		if (lambda != null)
+			return lambda;
+
+		return new Invoker(target.bindTo(database).asType(MethodType.methodType(void.class)));
+	}
+
+	/**
+	 * Erzeugt ber die LambdaMetafactory eine Instanz von TransactionMethod,
+	 * die die Methode auf der Datenbank aufruft.
+	 * 
+	 * @param lookup Lookup dieser Klasse
+	 * @param target Methode der Transaktion
+	 * @param database Datenbank
+	 * @return Gebundene Methode oder null, falls die LambdaMetafactory nicht
+	 *         verfgbar ist oder die Methode nicht binden kann
+	 */
+	private static TransactionMethod createLambda(MethodHandles.Lookup lookup, MethodHandle target, Database database)
+	{
+		try
+		{
+			Method metafactory = Class.forName("java.lang.invoke.LambdaMetafactory").getMethod("metafactory",
+					MethodHandles.Lookup.class, String.class, MethodType.class, MethodType.class, MethodHandle.class,
+					MethodType.class);
+			MethodType signature = MethodType.methodType(void.class);
+			CallSite site = (CallSite) metafactory.invoke(null, lookup, "invoke",
+					MethodType.methodType(TransactionMethod.class, database.getClass()), signature, target, signature);
+			return (TransactionMethod) site.getTarget().invoke(database);
+		} catch (Error e)
+		{
+			throw e;
+		} catch (Throwable t)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Aufruf ber ein gebundenes MethodHandle fr Java 7
+	 */
+	private static class Invoker implements TransactionMethod
+	{
+		private final MethodHandle invoker;
+
+		Invoker(MethodHandle invoker)
+		{
+			this.invoker = invoker;
+		}
+
+		@Override
+		public void invoke() throws Exception
+		{
+			try
+			{
+				invoker.invokeExact();
+			} catch (Exception e)
+			{
+				throw e;
+			} catch (Error e)
+			{
+				throw e;
+			} catch (Throwable t)
+			{
+				throw new UndeclaredThrowableException(t);
+			}
+		}
+	}
+
+}
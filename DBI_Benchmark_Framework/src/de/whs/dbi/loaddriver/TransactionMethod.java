@@ -0,0 +1,16 @@
+package de.whs.dbi.loaddriver;
+
+/**
+ * Das Interface TransactionMethod beschreibt die an eine Datenbank gebundene
+ * Methode einer Transaktion aus dem Lastprofil.
+ */
+public interface TransactionMethod
+{
+	/**
+	 * Ruft die Methode der Transaktion auf. Ausnahmen der Methode, insbesondere
+	 * SQLExceptions, werden unverndert weitergegeben.
+	 * 
+	 * @throws Exception
+	 */
+	public void invoke() throws Exception;
+}
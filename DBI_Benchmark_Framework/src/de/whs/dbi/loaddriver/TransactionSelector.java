@@ -0,0 +1,18 @@
+package de.whs.dbi.loaddriver;
+
+import java.util.Random;
+
+/**
+ * Ein TransactionSelector whlt die nchste Transaktion des Lastprofils
+ * unter Bercksichtigung der Gewichtungen aus.
+ */
+public interface TransactionSelector
+{
+	/**
+	 * Whlt die nchste Transaktion aus.
+	 * 
+	 * @param random Zufallszahlengenerator
+	 * @return Index der ausgewhlten Transaktion
+	 */
+	public int next(Random random);
+}
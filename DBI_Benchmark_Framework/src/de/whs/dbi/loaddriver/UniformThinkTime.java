@@ -0,0 +1,32 @@
+package de.whs.dbi.loaddriver;
+
+import java.util.Random;
+
+/**
+ * Eine UniformThinkTime ist eine gleichverteilte Bedenkzeit im Bereich
+ * Mittelwert * (1 - spread) bis Mittelwert * (1 + spread).
+ */
+public class UniformThinkTime implements ThinkTime
+{
+	protected double spread;
+
+	/**
+	 * Der Konstruktor initialisiert die Verteilung.
+	 * 
+	 * @param spread Halbe Breite relativ zum Mittelwert (0 bis 1)
+	 */
+	public UniformThinkTime(double spread)
+	{
+		if (spread < 0 || spread > 1)
+		{
+			throw new IllegalArgumentException();
+		}
+		this.spread = spread;
+	}
+
+	@Override
+	public long next(double mean, Random random)
+	{
+		return Math.round(mean * (1.0 - spread + 2.0 * spread * random.nextDouble()));
+	}
+}
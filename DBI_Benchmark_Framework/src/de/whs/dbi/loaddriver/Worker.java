@@ -0,0 +1,337 @@
+package de.whs.dbi.loaddriver;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.whs.dbi.benchmark.BenchmarkIF.STAGE;
+import de.whs.dbi.util.Configuration;
+import de.whs.dbi.util.Result;
+import de.whs.dbi.util.TimeSeries;
+
+/**
+ * Ein Worker fhrt innerhalb eines LoadDrivers das Lastprofil in einem eigenen
+ * Thread aus. Jeder Worker besitzt eine eigene Datenbankverbindung und eigene
+ * Transaktionsobjekte, sodass sich die Worker eines LoadDrivers nicht
+ * gegenseitig synchronisieren mssen. Im Terminal-Modus werden die Worker
+ * stattdessen von den Terminals aus einem Pool ausgeliehen.
+ */
+public class Worker implements Callable<Result>
+{
+	protected LoadDriver loadDriver;
+	protected int workerID;
+	protected Configuration config;
+	protected Database database;
+
+	protected ArrayList<Transaction> transactions = new ArrayList<Transaction>();
+	protected TransactionSelector selector;
+
+	/**
+	 * Zeitreihe ber alle Phasen
+	 */
+	protected TimeSeries timeSeries;
+
+	/**
+	 * Anzahl der Wiederholungen der aktuellen Transaktion
+	 */
+	protected int retries;
+
+	/**
+	 * Wiederholungsstrategie bei Serialisierungsfehlern und Deadlocks
+	 */
+	protected RetryPolicy retryPolicy;
+
+	/**
+	 * Aufzeichnung aller Transaktionen oder null
+	 */
+	protected TraceRecorder trace;
+
+	/**
+	 * Der Konstruktor initialisiert den Worker mit einer eigenen Datenbank.
+	 * 
+	 * @param loadDriver LoadDriver, zu dem der Worker gehrt
+	 * @param workerID ID des Workers innerhalb des LoadDrivers
+	 * @param database Datenbank mitsamt eigener Verbindung
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws IllegalAccessException
+	 */
+	public Worker(LoadDriver loadDriver, int workerID, Database database) throws NoSuchMethodException, SecurityException,
+			IllegalAccessException
+	{
+		this.loadDriver = loadDriver;
+		this.workerID = workerID;
+		this.config = loadDriver.config;
+		this.database = database;
+		this.timeSeries = new TimeSeries(config.getTimeSeriesInterval());
+		this.retryPolicy = new RetryPolicy(config);
+
+		loadTransactions();
+	}
+
+	/**
+	 * Bereitet den Worker mit der bestehenden Datenbankverbindung auf einen
+	 * weiteren Lauf vor. Die Transaktionen werden mit dem Lastprofil der
+	 * Konfiguration neu erzeugt, sodass auch ihre Ergebnisse zurckgesetzt
+	 * sind.
+	 * 
+	 * @param config Konfiguration des nchsten Laufs
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws IllegalAccessException
+	 */
+	public void prepare(Configuration config) throws NoSuchMethodException, SecurityException, IllegalAccessException
+	{
+		this.config = config;
+		database.setConfiguration(config);
+		timeSeries = new TimeSeries(config.getTimeSeriesInterval());
+		retryPolicy = new RetryPolicy(config);
+		transactions.clear();
+		loadTransactions();
+	}
+
+	/**
+	 * Initialisiert die Transaktionen mit den dazugehrigen Gewichtungen.
+	 * 
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws IllegalAccessException
+	 */
+	protected void loadTransactions() throws NoSuchMethodException, SecurityException, IllegalAccessException
+	{
+		int[] weights = new int[config.getTransactions().size()];
+		for (String transactionName : config.getTransactions())
+		{
+			weights[transactions.size()] = config.getTransactionWeight(transactionName);
+			transactions.add(database.createTransaction(transactionName));
+		}
+		selector = createTransactionSelector(weights);
+	}
+
+	/**
+	 * Erzeugt das in der Konfiguration festgelegte Auswahlverfahren fr die
+	 * Transaktionen.
+	 * 
+	 * @param weights Gewichtungen der Transaktionen
+	 * @return Auswahlverfahren
+	 */
+	protected TransactionSelector createTransactionSelector(int[] weights)
+	{
+		String selection = config.getTransactionSelection();
+		if (selection.equals("deck"))
+			return new DeckTransactionSelector(weights);
+		if (selection.equals("alias"))
+			return new AliasTransactionSelector(weights);
+		throw new IllegalArgumentException("Unbekanntes Auswahlverfahren: " + selection);
+	}
+
+	/**
+	 * Whlt eine Transaktion unter der Bercksichtigung der Gewichtungen aus.
+	 * 
+	 * @return Index der ausgewhlten Transaktion
+	 */
+	protected int chooseTransaction()
+	{
+		return selector.next(ParameterGenerator.getRandom());
+	}
+
+	/**
+	 * Gibt die ID des Workers zurck.
+	 * 
+	 * @return ID
+	 */
+	public int getWorkerID()
+	{
+		return workerID;
+	}
+
+	/**
+	 * Gibt die Datenbank des Workers zurck.
+	 * 
+	 * @return Datenbank
+	 */
+	public Database getDatabase()
+	{
+		return database;
+	}
+
+	/**
+	 * Gibt die Transaktionen des Workers zurck.
+	 * 
+	 * @return Transaktionen
+	 */
+	public ArrayList<Transaction> getTransactions()
+	{
+		return transactions;
+	}
+
+	/**
+	 * Gibt die Zeitreihe des Workers zurck. Das aktuelle Intervall ist erst
+	 * nach dem Ende des Benchmarks abgeschlossen.
+	 * 
+	 * @return Zeitreihe
+	 */
+	public TimeSeries getTimeSeries()
+	{
+		return timeSeries;
+	}
+
+	/**
+	 * Gibt die Aufzeichnung der Transaktionen zurck.
+	 * 
+	 * @return Aufzeichnung oder null
+	 */
+	public TraceRecorder getTraceRecorder()
+	{
+		return trace;
+	}
+
+	/**
+	 * Legt die Aufzeichnung der Transaktionen fest.
+	 * 
+	 * @param trace Aufzeichnung oder null
+	 */
+	public void setTraceRecorder(TraceRecorder trace)
+	{
+		this.trace = trace;
+	}
+
+	/**
+	 * Schliet die Datenbankverbindung des Workers.
+	 * 
+	 * @throws SQLException
+	 */
+	public void close() throws SQLException
+	{
+		database.closeConnection();
+	}
+
+	/**
+	 * Whlt eine Transaktion aus, fhrt sie ber die Datenbankverbindung des
+	 * Workers aus und protokolliert das Ergebnis. Die Transaktion wird der
+	 * Phase ihres Startzeitpunkts zugeordnet und unabhngig von der Phase in
+	 * der Zeitreihe erfasst.
+	 * 
+	 * @param start Startzeitpunkt (System.nanoTime()), ab dem die Dauer der
+	 *        Transaktion gemessen wird. In der offenen Lastschleife ist das
+	 *        der beabsichtigte und nicht der tatschliche Startzeitpunkt.
+	 * @return Index der ausgefhrten Transaktion
+	 */
+	public int executeNextTransaction(long start)
+	{
+		Logger log = loadDriver.log;
+		int index = chooseTransaction();
+		Transaction	transaction = transactions.get(index);
+		long begin = System.nanoTime();
+		retries = 0;
+		try
+		{
+			// Ausfhren der Transaktion in eigener Methode, um
+			// Serialisierungsfehler abzufangen
+			executeTransaction(transaction);
+			long duration = System.nanoTime() - start;
+			if (log.isLoggable(Level.FINE))
+				log.log(Level.FINE, "Dauer der erfolgreichen Transaktion \"{0}\" in ms: {1}",
+						new Object[] { transaction.getName(), duration / 1000000.0 });
+			STAGE stage = loadDriver.getStage(start);
+			timeSeries.recordCommit(stage, loadDriver.toClock(System.nanoTime()) / 1000000L, duration,
+					System.nanoTime() - begin, retries);
+			if (trace != null)
+				trace.record(start, duration, index, false, retries, stage, null);
+			if (stage == STAGE.BENCHMARK)
+				transaction.getResult().incSuccessfullTransactions(duration, retries);
+		}
+		catch (Exception e)
+		{
+			long duration = System.nanoTime() - start;
+			log.log(Level.WARNING, "Fehlgeschlagene Transaktion \""
+					+ transaction.getName() + "\"", e);
+			STAGE stage = loadDriver.getStage(start);
+			timeSeries.recordFailure(stage, loadDriver.toClock(System.nanoTime()) / 1000000L,
+					System.nanoTime() - begin, retries);
+			if (trace != null)
+				trace.record(start, duration, index, true, retries, stage,
+						e instanceof SQLException ? ((SQLException) e).getSQLState() : null);
+			if (stage == STAGE.BENCHMARK)
+				transaction.getResult().incFailedTransactions(retries);
+		}
+		return index;
+	}
+
+	/**
+	 * Fhrt das Lastprofil bis zum Ende des Benchmarks aus und gibt das
+	 * Ergebnis des Workers zurck.
+	 * 
+	 * @return Ergebnis
+	 * @throws Exception
+	 */
+	@Override
+	public Result call() throws Exception
+	{
+		ParameterGenerator.setRandom(loadDriver.createRandom(workerID));
+
+		loadDriver.awaitStart();
+		int rateVersion = loadDriver.getArrivalRateVersion();
+		ArrivalSchedule schedule = loadDriver.createArrivalSchedule();
+		Pacer pacer = loadDriver.createPacer();
+		while (!loadDriver.isFinished())
+		{
+			if (rateVersion != loadDriver.getArrivalRateVersion())
+			{
+				rateVersion = loadDriver.getArrivalRateVersion();
+				schedule = loadDriver.createArrivalSchedule();
+			}
+			if (schedule != null)
+			{
+				executeNextTransaction(schedule.awaitNext());
+			} else
+			{
+				long start = System.nanoTime();
+				pacer.pace(executeNextTransaction(start), start);
+			}
+		}
+		timeSeries.close();
+
+		Result result = new Result(Configuration.WORKER_NAME + workerID, config.getBenchmarkTime());
+		result.setTimeSeries(timeSeries);
+		for (Transaction transaction : transactions)
+		{
+			result.addSubResult(transaction.getResult());
+		}
+		return result;
+	}
+
+	/**
+	 * Diese Methode versucht eine Transaktion solange auszufhren, bis diese
+	 * vom DBMS serialisiert ausgefhrt werden konnte oder die Wiederholungsstrategie
+	 * keinen weiteren Versuch erlaubt.
+	 * 
+	 * Das ist notwendig, weil PostgreSQL eine Implementierung des Isolationslevels
+	 * SERIALIZABLE verwendet, die bei einem Serialisierungsfehler ein manuelles
+	 * Neustarten der Transaktion erfordert. Bei einem Serialisierungsfehler zwischen
+	 * zwei Transaktionen wird eine abgebrochen (mit SQLState 40001) und die andere
+	 * wird abgeschlossen. Der Serialisierungsfehler wird erst gemeldet, wenn die
+	 * andere Transaktion beendet wurde. Dadurch wird vermieden, dass derselbe Fehler
+	 * bei Neustart wieder auftritt. Entsprechendes gilt fr Deadlocks (SQLState 40P01).
+	 * 
+	 * @param transaction Transaktion, die ausgefhrt werden soll.
+	 * @throws Exception Im Fehlerfall.
+	 */
+	private void executeTransaction(Transaction transaction) throws Exception {
+		for (int attempt = 1;; attempt++) {
+			try {
+				transaction.execute();
+				return;
+			}
+			catch (SQLException e) {
+				if (!retryPolicy.isRetryable(e) || !retryPolicy.allowsAttempt(attempt + 1))
+					throw e;
+			}
+			retries++;
+			retryPolicy.backoff(attempt, ParameterGenerator.getRandom());
+		}
+	}
+
+}
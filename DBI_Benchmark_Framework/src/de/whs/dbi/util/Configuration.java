@@ -6,9 +6,12 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.InvalidPropertiesFormatException;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -36,11 +39,26 @@ public class Configuration implements Serializable
 	 */
 	protected final static String RMI_FILE = "RMI.xml";
 	
+	/**
+	 * Endung der Schlssel fr die eigene Bedenkzeit einer Transaktion
+	 */
+	protected final static String THINKTIME_SUFFIX = ".thinktime";
+	
+	/**
+	 * Prfix der Schlssel, mit denen das Lastprofil berschrieben wird
+	 */
+	protected final static String TRANSACTION_PREFIX = "transaction.";
+	
 	/**
 	 * Bezeichnung fr einen LoadDriver
 	 */
 	public final static String LOADDRIVER_NAME = "LoadDriver";
 	
+	/**
+	 * Bezeichnung fr einen Worker eines LoadDrivers
+	 */
+	public final static String WORKER_NAME = "Worker";
+	
 	/**
 	 * Bezeichnung fr einen Benchmark
 	 */
@@ -70,6 +88,42 @@ public class Configuration implements Serializable
 		pBenchmarkDefaults.setProperty("benchmark.time", "0");
 		pBenchmarkDefaults.setProperty("cooldown.time", "0");
 		pBenchmarkDefaults.setProperty("thinktime", "0");		
+		pBenchmarkDefaults.setProperty("thinktime.distribution", "fixed");
+		pBenchmarkDefaults.setProperty("thinktime.spread", "1");
+		pBenchmarkDefaults.setProperty("thinktime.mode", "think");
+		pBenchmarkDefaults.setProperty("workers", "1");
+		pBenchmarkDefaults.setProperty("terminals", "0");
+		pBenchmarkDefaults.setProperty("arrival.rate", "0");
+		pBenchmarkDefaults.setProperty("transactions.selection", "alias");
+		pBenchmarkDefaults.setProperty("random.seed", "");
+		pBenchmarkDefaults.setProperty("schedule.lead", "1000");
+		pBenchmarkDefaults.setProperty("warmup.adaptive", "false");
+		pBenchmarkDefaults.setProperty("campaign.file", "");
+		pBenchmarkDefaults.setProperty("loaddriver.persistent", "false");
+		pBenchmarkDefaults.setProperty("loaddriver.reload", "false");
+		pBenchmarkDefaults.setProperty("warmup.min", "10");
+		pBenchmarkDefaults.setProperty("warmup.window", "10");
+		pBenchmarkDefaults.setProperty("warmup.cv", "0.05");
+		pBenchmarkDefaults.setProperty("saturation.slo", "0");
+		pBenchmarkDefaults.setProperty("saturation.rate.start", "100");
+		pBenchmarkDefaults.setProperty("saturation.rate.factor", "2");
+		pBenchmarkDefaults.setProperty("saturation.rate.max", "100000");
+		pBenchmarkDefaults.setProperty("saturation.warmup", "5");
+		pBenchmarkDefaults.setProperty("saturation.measure", "10");
+		pBenchmarkDefaults.setProperty("saturation.steps", "5");
+		pBenchmarkDefaults.setProperty("timeseries.interval", "1000");
+		pBenchmarkDefaults.setProperty("log.buffer", "65536");
+		pBenchmarkDefaults.setProperty("retry.states", "40001,40P01");
+		pBenchmarkDefaults.setProperty("retry.attempts", "10");
+		pBenchmarkDefaults.setProperty("retry.backoff", "1");
+		pBenchmarkDefaults.setProperty("retry.backoff.max", "100");
+		pBenchmarkDefaults.setProperty("retry.jitter", "true");
+		pBenchmarkDefaults.setProperty("trace.dir", "");
+		pBenchmarkDefaults.setProperty("trace.records", "1000000");
+		pBenchmarkDefaults.setProperty("report.interval", "5");
+		pBenchmarkDefaults.setProperty("abort.tps", "0");
+		pBenchmarkDefaults.setProperty("abort.p99", "0");
+		pBenchmarkDefaults.setProperty("abort.reports", "3");
 	}
 	
 	/**
@@ -86,6 +140,39 @@ public class Configuration implements Serializable
 		pRMI = new Properties();
 	}
 	
+	/**
+	 * Der Konstruktor erzeugt eine unabhngige Kopie einer Konfiguration.
+	 * 
+	 * @param other Konfiguration
+	 * @throws InvalidPropertiesFormatException
+	 * @throws FileNotFoundException
+	 * @throws IOException
+	 */
+	public Configuration(Configuration other) throws InvalidPropertiesFormatException, FileNotFoundException, IOException 
+	{
+		this();
+		pBenchmark.putAll(other.pBenchmark);
+		pTransactions.putAll(other.pTransactions);
+		pRMI.putAll(other.pRMI);
+	}
+	
+	/**
+	 * berschreibt eine Einstellung. Schlssel mit dem Prfix "transaction."
+	 * betreffen das Lastprofil (z. B. "transaction.deposit" fr die
+	 * Gewichtung der Transaktion deposit), alle anderen die allgemeinen
+	 * Benchmarkeinstellungen.
+	 * 
+	 * @param key Schlssel
+	 * @param value Wert
+	 */
+	public void override(String key, String value)
+	{
+		if (key.startsWith(TRANSACTION_PREFIX))
+			pTransactions.setProperty(key.substring(TRANSACTION_PREFIX.length()), value);
+		else
+			pBenchmark.setProperty(key, value);
+	}
+	
 	/**
 	 * Ldt die Konfiguration fr den Benchmark.
 	 * 
@@ -237,7 +324,7 @@ public class Configuration implements Serializable
 	 */
 	public void setDatabaseJDBC(String jdbc) 
 	{
-		pBenchmark.setProperty("registry.port", jdbc);
+		pBenchmark.setProperty("database.jdbc", jdbc);
 	}
 	
 	/**
@@ -257,7 +344,7 @@ public class Configuration implements Serializable
 	 */
 	public void setDatabaseClass(String databaseClass) 
 	{
-		pBenchmark.setProperty("registry.port", databaseClass);
+		pBenchmark.setProperty("database.class", databaseClass);
 	}
 	
 	/**
@@ -277,7 +364,59 @@ public class Configuration implements Serializable
 	 */
 	public void setLoadDrivers(int n) 
 	{
-		pBenchmark.setProperty("registry.port", Integer.toString(n));
+		pBenchmark.setProperty("loaddrivers", Integer.toString(n));
+	}
+	
+	/**
+	 * Gibt die Anzahl der Worker-Threads je LoadDriver zurck.
+	 * 
+	 * @return Anzahl der Worker-Threads
+	 */
+	public int getWorkers() 
+	{
+		int i = Integer.parseInt(pBenchmark.getProperty("workers"));
+		if (i > 0)
+			return i;
+		return Integer.parseInt(pBenchmarkDefaults.getProperty("workers"));
+	}
+	
+	/**
+	 * Legt die Anzahl der Worker-Threads je LoadDriver fest.
+	 * 
+	 * @param n Anzahl
+	 */
+	public void setWorkers(int n) 
+	{
+		if (n < 1)
+			n = Integer.parseInt(pBenchmarkDefaults.getProperty("workers"));
+		pBenchmark.setProperty("workers", Integer.toString(n));
+	}
+	
+	/**
+	 * Gibt die Anzahl der emulierten Terminals je LoadDriver zurck. Bei 0
+	 * fhrt jeder Worker-Thread das Lastprofil selbst aus, andernfalls teilen
+	 * sich die Terminals die Datenbankverbindungen der Worker.
+	 * 
+	 * @return Anzahl der Terminals
+	 */
+	public int getTerminals() 
+	{
+		int i = Integer.parseInt(pBenchmark.getProperty("terminals"));
+		if (i >= 0)
+			return i;
+		return Integer.parseInt(pBenchmarkDefaults.getProperty("terminals"));
+	}
+	
+	/**
+	 * Legt die Anzahl der emulierten Terminals je LoadDriver fest.
+	 * 
+	 * @param n Anzahl
+	 */
+	public void setTerminals(int n) 
+	{
+		if (n < 0)
+			n = Integer.parseInt(pBenchmarkDefaults.getProperty("terminals"));
+		pBenchmark.setProperty("terminals", Integer.toString(n));
 	}
 	
 	/**
@@ -297,7 +436,7 @@ public class Configuration implements Serializable
 	 */
 	public void setLogLevel(Level level) 
 	{
-		pBenchmark.setProperty("registry.port", level.getName());
+		pBenchmark.setProperty("log.level", level.getName());
 	}
 	
 	/**
@@ -307,7 +446,48 @@ public class Configuration implements Serializable
 	 */
 	public Set<String> getTransactions() 
 	{
-		return pTransactions.stringPropertyNames();
+		// Schlssel mit Punkt (z. B. "name.thinktime") sind Parameter einer
+		// Transaktion, da Methodennamen keinen Punkt enthalten knnen
+		Set<String> transactions = new HashSet<String>();
+		for (String key : pTransactions.stringPropertyNames())
+		{
+			if (key.indexOf('.') < 0)
+				transactions.add(key);
+		}
+		return transactions;
+	}
+	
+	/**
+	 * Gibt die eigene Bedenkzeit einer Transaktion in ms zurck. Sie wird in
+	 * den Transaktionen als "name.thinktime" festgelegt und ersetzt die
+	 * durchschnittliche Bedenkzeit aus der Benchmark-Konfiguration.
+	 * 
+	 * @param transaction Transaktion
+	 * @return Bedenkzeit oder null, falls keine festgelegt ist
+	 */
+	public Double getTransactionThinkTime(String transaction) 
+	{
+		String value = pTransactions.getProperty(transaction + THINKTIME_SUFFIX);
+		if (value == null || value.trim().isEmpty())
+			return null;
+		double d = Double.parseDouble(value.trim());
+		if (d >= 0)
+			return d;
+		return null;
+	}
+	
+	/**
+	 * Legt die eigene Bedenkzeit einer Transaktion fest.
+	 * 
+	 * @param transaction Transaktion
+	 * @param time Bedenkzeit in ms oder null, um sie zu entfernen
+	 */
+	public void setTransactionThinkTime(String transaction, Double time) 
+	{
+		if (time == null || time < 0)
+			pTransactions.remove(transaction + THINKTIME_SUFFIX);
+		else
+			pTransactions.setProperty(transaction + THINKTIME_SUFFIX, Double.toString(time));
 	}
 	
 	/**
@@ -324,6 +504,29 @@ public class Configuration implements Serializable
 		return 0;
 	}
 	
+	/**
+	 * Gibt das Auswahlverfahren fr die Transaktionen zurck: "alias" zieht
+	 * jede Transaktion unabhngig entsprechend ihrer Gewichtung, "deck"
+	 * hlt die Gewichtungen in jedem Fenster von (Summe der Gewichtungen)
+	 * Transaktionen exakt ein.
+	 * 
+	 * @return Auswahlverfahren
+	 */
+	public String getTransactionSelection() 
+	{
+		return pBenchmark.getProperty("transactions.selection");
+	}
+	
+	/**
+	 * Legt das Auswahlverfahren fr die Transaktionen fest.
+	 * 
+	 * @param selection Auswahlverfahren ("alias" oder "deck")
+	 */
+	public void setTransactionSelection(String selection) 
+	{
+		pBenchmark.setProperty("transactions.selection", selection);
+	}
+	
 	/**
 	 * Fgt eine Transaktion hinzu.
 	 * 
@@ -344,6 +547,7 @@ public class Configuration implements Serializable
 	{		
 		if (pTransactions.containsKey(transaction))
 			pTransactions.remove(transaction);
+		pTransactions.remove(transaction + THINKTIME_SUFFIX);
 	}
 	
 	/**
@@ -447,25 +651,868 @@ public class Configuration implements Serializable
 	}
 	
 	/**
-	 * Gibt einen benutzerdefinierten Konfigurationsparameter zurck.
+	 * Gibt die Verteilung der Bedenkzeit zurck: "fixed" (konstant),
+	 * "exponential" (negativ-exponentiell) oder "uniform" (gleichverteilt).
 	 * 
-	 * @param key Parameterschlssel
-	 * @return Parameterwert
+	 * @return Verteilung
 	 */
-	public String getUser(String key)
+	public String getThinkTimeDistribution() 
 	{
-		return pBenchmark.getProperty("user." + key);
+		return pBenchmark.getProperty("thinktime.distribution").trim();
 	}
 	
 	/**
-	 * Legt einen benutzerdefinierten Konfigurationsparameter fest.
+	 * Legt die Verteilung der Bedenkzeit fest.
 	 * 
-	 * @param key Parameterschlssel
-	 * @param value Parameterwert
+	 * @param distribution Verteilung
 	 */
-	public void setUser(String key, String value)
+	public void setThinkTimeDistribution(String distribution) 
 	{
-		pBenchmark.setProperty("user." + key, value);
+		pBenchmark.setProperty("thinktime.distribution", distribution);
+	}
+	
+	/**
+	 * Gibt die halbe Breite der Gleichverteilung der Bedenkzeit relativ zum
+	 * Mittelwert zurck. Bei 1 liegt die Bedenkzeit zwischen 0 und dem
+	 * doppelten Mittelwert.
+	 * 
+	 * @return Anteil (0 bis 1)
+	 */
+	public double getThinkTimeSpread() 
+	{
+		double d = Double.parseDouble(pBenchmark.getProperty("thinktime.spread"));
+		if (d >= 0 && d <= 1)
+			return d;
+		return Double.parseDouble(pBenchmarkDefaults.getProperty("thinktime.spread"));
+	}
+	
+	/**
+	 * Legt die halbe Breite der Gleichverteilung der Bedenkzeit fest.
+	 * 
+	 * @param spread Anteil (0 bis 1)
+	 */
+	public void setThinkTimeSpread(double spread) 
+	{
+		if (spread < 0 || spread > 1)
+			spread = Double.parseDouble(pBenchmarkDefaults.getProperty("thinktime.spread"));
+		pBenchmark.setProperty("thinktime.spread", Double.toString(spread));
+	}
+	
+	/**
+	 * Gibt an, wie die Bedenkzeit angewendet wird: "think" wartet nach dem
+	 * Ende einer Transaktion, "cycle" hlt den Abstand zwischen den
+	 * Startzeitpunkten zweier Transaktionen (Zykluszeit) unabhngig von der
+	 * Dauer der Transaktion ein.
+	 * 
+	 * @return Modus
+	 */
+	public String getThinkTimeMode() 
+	{
+		return pBenchmark.getProperty("thinktime.mode").trim();
+	}
+	
+	/**
+	 * Legt fest, wie die Bedenkzeit angewendet wird.
+	 * 
+	 * @param mode Modus ("think" oder "cycle")
+	 */
+	public void setThinkTimeMode(String mode) 
+	{
+		pBenchmark.setProperty("thinktime.mode", mode);
+	}
+	
+	/**
+	 * Gibt die Ankunftsrate der offenen Lastschleife in Transaktionen pro
+	 * Sekunde fr den gesamten Benchmark zurck. Bei 0 wird die geschlossene
+	 * Lastschleife mit Bedenkzeit verwendet.
+	 * 
+	 * @return Ankunftsrate
+	 */
+	public double getArrivalRate() 
+	{
+		double d = Double.parseDouble(pBenchmark.getProperty("arrival.rate"));
+		if (d >= 0)
+			return d;
+		return Double.parseDouble(pBenchmarkDefaults.getProperty("arrival.rate"));
+	}
+	
+	/**
+	 * Legt die Ankunftsrate der offenen Lastschleife fest.
+	 * 
+	 * @param rate Ankunftsrate in Transaktionen pro Sekunde
+	 */
+	public void setArrivalRate(double rate) 
+	{
+		if (rate < 0)
+			rate = Double.parseDouble(pBenchmarkDefaults.getProperty("arrival.rate"));
+		pBenchmark.setProperty("arrival.rate", Double.toString(rate));
+	}
+	
+	/**
+	 * Gibt die Grenze fr das 99. Perzentil der Transaktionsdauer in ms fr
+	 * die Suche nach der maximalen Last zurck. Bei 0 wird ein normaler
+	 * Benchmark ausgefhrt.
+	 * 
+	 * @return Grenze in ms
+	 */
+	public double getSaturationSLO() 
+	{
+		double d = Double.parseDouble(pBenchmark.getProperty("saturation.slo"));
+		if (d >= 0)
+			return d;
+		return Double.parseDouble(pBenchmarkDefaults.getProperty("saturation.slo"));
+	}
+	
+	/**
+	 * Legt die Grenze fr das 99. Perzentil der Transaktionsdauer in ms fr
+	 * die Suche nach der maximalen Last fest. Bei 0 wird ein normaler
+	 * Benchmark ausgefhrt.
+	 * 
+	 * @param slo Grenze in ms
+	 */
+	public void setSaturationSLO(double slo) 
+	{
+		if (slo < 0)
+			slo = Double.parseDouble(pBenchmarkDefaults.getProperty("saturation.slo"));
+		pBenchmark.setProperty("saturation.slo", Double.toString(slo));
+	}
+	
+	/**
+	 * Gibt die Ankunftsrate der ersten Stufe der Suche in Transaktionen pro Sekunde zurck.
+	 * 
+	 * @return Ankunftsrate
+	 */
+	public double getSaturationRateStart() 
+	{
+		double d = Double.parseDouble(pBenchmark.getProperty("saturation.rate.start"));
+		if (d > 0)
+			return d;
+		return Double.parseDouble(pBenchmarkDefaults.getProperty("saturation.rate.start"));
+	}
+	
+	/**
+	 * Legt die Ankunftsrate der ersten Stufe der Suche in Transaktionen pro Sekunde fest.
+	 * 
+	 * @param rate Ankunftsrate
+	 */
+	public void setSaturationRateStart(double rate) 
+	{
+		if (rate <= 0)
+			rate = Double.parseDouble(pBenchmarkDefaults.getProperty("saturation.rate.start"));
+		pBenchmark.setProperty("saturation.rate.start", Double.toString(rate));
+	}
+	
+	/**
+	 * Gibt den Faktor zurck, um den die Ankunftsrate von Stufe zu Stufe wchst.
+	 * 
+	 * @return Faktor
+	 */
+	public double getSaturationRateFactor() 
+	{
+		double d = Double.parseDouble(pBenchmark.getProperty("saturation.rate.factor"));
+		if (d > 1)
+			return d;
+		return Double.parseDouble(pBenchmarkDefaults.getProperty("saturation.rate.factor"));
+	}
+	
+	/**
+	 * Legt den Faktor fest, um den die Ankunftsrate von Stufe zu Stufe wchst.
+	 * 
+	 * @param factor Faktor
+	 */
+	public void setSaturationRateFactor(double factor) 
+	{
+		if (factor <= 1)
+			factor = Double.parseDouble(pBenchmarkDefaults.getProperty("saturation.rate.factor"));
+		pBenchmark.setProperty("saturation.rate.factor", Double.toString(factor));
+	}
+	
+	/**
+	 * Gibt die hchste Ankunftsrate der Suche in Transaktionen pro Sekunde zurck.
+	 * 
+	 * @return Ankunftsrate
+	 */
+	public double getSaturationRateMax() 
+	{
+		double d = Double.parseDouble(pBenchmark.getProperty("saturation.rate.max"));
+		if (d > 0)
+			return d;
+		return Double.parseDouble(pBenchmarkDefaults.getProperty("saturation.rate.max"));
+	}
+	
+	/**
+	 * Legt die hchste Ankunftsrate der Suche in Transaktionen pro Sekunde fest.
+	 * 
+	 * @param rate Ankunftsrate
+	 */
+	public void setSaturationRateMax(double rate) 
+	{
+		if (rate <= 0)
+			rate = Double.parseDouble(pBenchmarkDefaults.getProperty("saturation.rate.max"));
+		pBenchmark.setProperty("saturation.rate.max", Double.toString(rate));
+	}
+	
+	/**
+	 * Gibt die Aufwrmzeit jeder Stufe der Suche in Sekunden zurck.
+	 * 
+	 * @return Zeitdauer
+	 */
+	public int getSaturationWarmup() 
+	{
+		int i = Integer.parseInt(pBenchmark.getProperty("saturation.warmup"));
+		if (i >= 0)
+			return i;
+		return Integer.parseInt(pBenchmarkDefaults.getProperty("saturation.warmup"));
+	}
+	
+	/**
+	 * Legt die Aufwrmzeit jeder Stufe der Suche in Sekunden fest.
+	 * 
+	 * @param time Zeitdauer
+	 */
+	public void setSaturationWarmup(int time) 
+	{
+		if (time < 0)
+			time = Integer.parseInt(pBenchmarkDefaults.getProperty("saturation.warmup"));
+		pBenchmark.setProperty("saturation.warmup", Integer.toString(time));
+	}
+	
+	/**
+	 * Gibt die Messzeit jeder Stufe der Suche in Sekunden zurck.
+	 * 
+	 * @return Zeitdauer
+	 */
+	public int getSaturationMeasure() 
+	{
+		int i = Integer.parseInt(pBenchmark.getProperty("saturation.measure"));
+		if (i > 0)
+			return i;
+		return Integer.parseInt(pBenchmarkDefaults.getProperty("saturation.measure"));
+	}
+	
+	/**
+	 * Legt die Messzeit jeder Stufe der Suche in Sekunden fest.
+	 * 
+	 * @param time Zeitdauer
+	 */
+	public void setSaturationMeasure(int time) 
+	{
+		if (time <= 0)
+			time = Integer.parseInt(pBenchmarkDefaults.getProperty("saturation.measure"));
+		pBenchmark.setProperty("saturation.measure", Integer.toString(time));
+	}
+	
+	/**
+	 * Gibt die Anzahl der Stufen der binren Suche nach der ersten berlastung zurck.
+	 * 
+	 * @return Anzahl
+	 */
+	public int getSaturationSteps() 
+	{
+		int i = Integer.parseInt(pBenchmark.getProperty("saturation.steps"));
+		if (i >= 0)
+			return i;
+		return Integer.parseInt(pBenchmarkDefaults.getProperty("saturation.steps"));
+	}
+	
+	/**
+	 * Legt die Anzahl der Stufen der binren Suche nach der ersten berlastung fest.
+	 * 
+	 * @param steps Anzahl
+	 */
+	public void setSaturationSteps(int steps) 
+	{
+		if (steps < 0)
+			steps = Integer.parseInt(pBenchmarkDefaults.getProperty("saturation.steps"));
+		pBenchmark.setProperty("saturation.steps", Integer.toString(steps));
+	}
+	
+	/**
+	 * Gibt zurck, ob die Phase WARMUP vorzeitig endet, sobald Durchsatz und
+	 * Dauer der Transaktionen stationr sind. Die Zeitdauer der Phase WARMUP
+	 * ist dann die Obergrenze.
+	 * 
+	 * @return Wahrheitswert
+	 */
+	public boolean isAdaptiveWarmUp() 
+	{
+		return Boolean.parseBoolean(pBenchmark.getProperty("warmup.adaptive").trim());
+	}
+	
+	/**
+	 * Legt fest, ob die Phase WARMUP vorzeitig endet, sobald Durchsatz und
+	 * Dauer der Transaktionen stationr sind.
+	 * 
+	 * @param adaptive Wahrheitswert
+	 */
+	public void setAdaptiveWarmUp(boolean adaptive) 
+	{
+		pBenchmark.setProperty("warmup.adaptive", Boolean.toString(adaptive));
+	}
+	
+	/**
+	 * Gibt die Mindestdauer der Phase WARMUP in Sekunden zurck.
+	 * 
+	 * @return Zeitdauer
+	 */
+	public int getWarmUpMin() 
+	{
+		int i = Integer.parseInt(pBenchmark.getProperty("warmup.min"));
+		if (i >= 0)
+			return i;
+		return Integer.parseInt(pBenchmarkDefaults.getProperty("warmup.min"));
+	}
+	
+	/**
+	 * Legt die Mindestdauer der Phase WARMUP in Sekunden fest.
+	 * 
+	 * @param time Zeitdauer
+	 */
+	public void setWarmUpMin(int time) 
+	{
+		if (time < 0)
+			time = Integer.parseInt(pBenchmarkDefaults.getProperty("warmup.min"));
+		pBenchmark.setProperty("warmup.min", Integer.toString(time));
+	}
+	
+	/**
+	 * Gibt die Anzahl der Intervalle der Zeitreihe zurck, ber die der
+	 * stationre Zustand beurteilt wird.
+	 * 
+	 * @return Anzahl
+	 */
+	public int getWarmUpWindow() 
+	{
+		int i = Integer.parseInt(pBenchmark.getProperty("warmup.window"));
+		if (i > 1)
+			return i;
+		return Integer.parseInt(pBenchmarkDefaults.getProperty("warmup.window"));
+	}
+	
+	/**
+	 * Legt die Anzahl der Intervalle der Zeitreihe fest, ber die der
+	 * stationre Zustand beurteilt wird.
+	 * 
+	 * @param window Anzahl
+	 */
+	public void setWarmUpWindow(int window) 
+	{
+		if (window <= 1)
+			window = Integer.parseInt(pBenchmarkDefaults.getProperty("warmup.window"));
+		pBenchmark.setProperty("warmup.window", Integer.toString(window));
+	}
+	
+	/**
+	 * Gibt den grten Variationskoeffizienten (Standardabweichung durch
+	 * Mittelwert) von Durchsatz und mittlerer Dauer zurck, bei dem der
+	 * Zustand als stationr gilt.
+	 * 
+	 * @return Variationskoeffizient
+	 */
+	public double getWarmUpCV() 
+	{
+		double d = Double.parseDouble(pBenchmark.getProperty("warmup.cv"));
+		if (d > 0)
+			return d;
+		return Double.parseDouble(pBenchmarkDefaults.getProperty("warmup.cv"));
+	}
+	
+	/**
+	 * Legt den grten Variationskoeffizienten fest, bei dem der Zustand als
+	 * stationr gilt.
+	 * 
+	 * @param cv Variationskoeffizient
+	 */
+	public void setWarmUpCV(double cv) 
+	{
+		if (cv <= 0)
+			cv = Double.parseDouble(pBenchmarkDefaults.getProperty("warmup.cv"));
+		pBenchmark.setProperty("warmup.cv", Double.toString(cv));
+	}
+	
+	/**
+	 * Gibt den Vorlauf zwischen dem Verteilen des Ablaufplans an die
+	 * LoadDriver und dem Beginn der Phase WARMUP in ms zurck.
+	 * 
+	 * @return Vorlauf
+	 */
+	public int getScheduleLead() 
+	{
+		int i = Integer.parseInt(pBenchmark.getProperty("schedule.lead"));
+		if (i >= 0)
+			return i;
+		return Integer.parseInt(pBenchmarkDefaults.getProperty("schedule.lead"));
+	}
+	
+	/**
+	 * Legt den Vorlauf vor dem Beginn der Phase WARMUP fest.
+	 * 
+	 * @param lead Vorlauf in ms
+	 */
+	public void setScheduleLead(int lead) 
+	{
+		if (lead < 0)
+			lead = Integer.parseInt(pBenchmarkDefaults.getProperty("schedule.lead"));
+		pBenchmark.setProperty("schedule.lead", Integer.toString(lead));
+	}
+	
+	/**
+	 * Gibt die Kapazitt des Puffers fr Protokollmeldungen eines LoadDrivers
+	 * zurck. Ist der Puffer voll, werden Meldungen verworfen.
+	 * 
+	 * @return Anzahl der Meldungen
+	 */
+	public int getLogBuffer() 
+	{
+		int i = Integer.parseInt(pBenchmark.getProperty("log.buffer"));
+		if (i > 0)
+			return i;
+		return Integer.parseInt(pBenchmarkDefaults.getProperty("log.buffer"));
+	}
+	
+	/**
+	 * Legt die Kapazitt des Puffers fr Protokollmeldungen fest.
+	 * 
+	 * @param capacity Anzahl der Meldungen
+	 */
+	public void setLogBuffer(int capacity) 
+	{
+		if (capacity <= 0)
+			capacity = Integer.parseInt(pBenchmarkDefaults.getProperty("log.buffer"));
+		pBenchmark.setProperty("log.buffer", Integer.toString(capacity));
+	}
+	
+	/**
+	 * Gibt die SQLStates zurck, nach denen eine Transaktion wiederholt wird.
+	 * 
+	 * @return SQLStates
+	 */
+	public String[] getRetryStates() 
+	{
+		ArrayList<String> states = new ArrayList<String>();
+		for (String state : pBenchmark.getProperty("retry.states").split(","))
+		{
+			if (!state.trim().isEmpty())
+				states.add(state.trim());
+		}
+		return states.toArray(new String[states.size()]);
+	}
+	
+	/**
+	 * Legt die SQLStates fest, nach denen eine Transaktion wiederholt wird.
+	 * 
+	 * @param states SQLStates
+	 */
+	public void setRetryStates(String[] states) 
+	{
+		StringBuilder property = new StringBuilder();
+		for (String state : states)
+		{
+			if (property.length() > 0)
+				property.append(',');
+			property.append(state);
+		}
+		pBenchmark.setProperty("retry.states", property.toString());
+	}
+	
+	/**
+	 * Gibt die maximale Anzahl der Versuche einer Transaktion zurck.
+	 * 
+	 * @return Anzahl (0 = unbegrenzt)
+	 */
+	public int getRetryAttempts() 
+	{
+		int i = Integer.parseInt(pBenchmark.getProperty("retry.attempts"));
+		if (i >= 0)
+			return i;
+		return Integer.parseInt(pBenchmarkDefaults.getProperty("retry.attempts"));
+	}
+	
+	/**
+	 * Legt die maximale Anzahl der Versuche einer Transaktion fest.
+	 * 
+	 * @param attempts Anzahl (0 = unbegrenzt)
+	 */
+	public void setRetryAttempts(int attempts) 
+	{
+		if (attempts < 0)
+			attempts = Integer.parseInt(pBenchmarkDefaults.getProperty("retry.attempts"));
+		pBenchmark.setProperty("retry.attempts", Integer.toString(attempts));
+	}
+	
+	/**
+	 * Gibt die Wartezeit vor der ersten Wiederholung in ms zurck.
+	 * 
+	 * @return Wartezeit
+	 */
+	public double getRetryBackoff() 
+	{
+		double d = Double.parseDouble(pBenchmark.getProperty("retry.backoff"));
+		if (d >= 0)
+			return d;
+		return Double.parseDouble(pBenchmarkDefaults.getProperty("retry.backoff"));
+	}
+	
+	/**
+	 * Legt die Wartezeit vor der ersten Wiederholung fest.
+	 * 
+	 * @param backoff Wartezeit in ms
+	 */
+	public void setRetryBackoff(double backoff) 
+	{
+		if (backoff < 0)
+			backoff = Double.parseDouble(pBenchmarkDefaults.getProperty("retry.backoff"));
+		pBenchmark.setProperty("retry.backoff", Double.toString(backoff));
+	}
+	
+	/**
+	 * Gibt die maximale Wartezeit vor einer Wiederholung in ms zurck.
+	 * 
+	 * @return Wartezeit
+	 */
+	public double getRetryBackoffMax() 
+	{
+		double d = Double.parseDouble(pBenchmark.getProperty("retry.backoff.max"));
+		if (d >= 0)
+			return d;
+		return Double.parseDouble(pBenchmarkDefaults.getProperty("retry.backoff.max"));
+	}
+	
+	/**
+	 * Legt die maximale Wartezeit vor einer Wiederholung fest.
+	 * 
+	 * @param backoff Wartezeit in ms
+	 */
+	public void setRetryBackoffMax(double backoff) 
+	{
+		if (backoff < 0)
+			backoff = Double.parseDouble(pBenchmarkDefaults.getProperty("retry.backoff.max"));
+		pBenchmark.setProperty("retry.backoff.max", Double.toString(backoff));
+	}
+	
+	/**
+	 * Gibt an, ob die Wartezeit vor einer Wiederholung zufllig gewhlt wird.
+	 * 
+	 * @return Wahrheitswert
+	 */
+	public boolean getRetryJitter() 
+	{
+		return Boolean.parseBoolean(pBenchmark.getProperty("retry.jitter").trim());
+	}
+	
+	/**
+	 * Legt fest, ob die Wartezeit vor einer Wiederholung zufllig gewhlt wird.
+	 * 
+	 * @param jitter Wahrheitswert
+	 */
+	public void setRetryJitter(boolean jitter) 
+	{
+		pBenchmark.setProperty("retry.jitter", Boolean.toString(jitter));
+	}
+	
+	/**
+	 * Gibt das Verzeichnis fr die Aufzeichnung aller Transaktionen auf den
+	 * LoadDrivern zurck.
+	 * 
+	 * @return Verzeichnis oder eine leere Zeichenkette, falls nicht
+	 *         aufgezeichnet wird
+	 */
+	public String getTraceDirectory() 
+	{
+		return pBenchmark.getProperty("trace.dir").trim();
+	}
+	
+	/**
+	 * Legt das Verzeichnis fr die Aufzeichnung aller Transaktionen fest.
+	 * 
+	 * @param directory Verzeichnis oder eine leere Zeichenkette
+	 */
+	public void setTraceDirectory(String directory) 
+	{
+		if (directory == null)
+			directory = pBenchmarkDefaults.getProperty("trace.dir");
+		pBenchmark.setProperty("trace.dir", directory);
+	}
+	
+	/**
+	 * Gibt die maximale Anzahl aufgezeichneter Transaktionen je Worker zurck.
+	 * 
+	 * @return Anzahl
+	 */
+	public int getTraceRecords() 
+	{
+		int i = Integer.parseInt(pBenchmark.getProperty("trace.records"));
+		if (i > 0)
+			return i;
+		return Integer.parseInt(pBenchmarkDefaults.getProperty("trace.records"));
+	}
+	
+	/**
+	 * Legt die maximale Anzahl aufgezeichneter Transaktionen je Worker fest.
+	 * 
+	 * @param records Anzahl
+	 */
+	public void setTraceRecords(int records) 
+	{
+		if (records <= 0)
+			records = Integer.parseInt(pBenchmarkDefaults.getProperty("trace.records"));
+		pBenchmark.setProperty("trace.records", Integer.toString(records));
+	}
+	
+	/**
+	 * Gibt die Lnge eines Intervalls der Zeitreihe in ms zurck.
+	 * 
+	 * @return Intervalllnge
+	 */
+	public int getTimeSeriesInterval() 
+	{
+		int i = Integer.parseInt(pBenchmark.getProperty("timeseries.interval"));
+		if (i > 0)
+			return i;
+		return Integer.parseInt(pBenchmarkDefaults.getProperty("timeseries.interval"));
+	}
+	
+	/**
+	 * Legt die Lnge eines Intervalls der Zeitreihe fest.
+	 * 
+	 * @param interval Intervalllnge in ms
+	 */
+	public void setTimeSeriesInterval(int interval) 
+	{
+		if (interval <= 0)
+			interval = Integer.parseInt(pBenchmarkDefaults.getProperty("timeseries.interval"));
+		pBenchmark.setProperty("timeseries.interval", Integer.toString(interval));
+	}
+	
+	/**
+	 * Gibt den Abstand der Zwischenergebnisse whrend des Benchmarks in
+	 * Sekunden zurck. Bei 0 werden keine Zwischenergebnisse abgefragt.
+	 * 
+	 * @return Abstand
+	 */
+	public int getReportInterval() 
+	{
+		int i = Integer.parseInt(pBenchmark.getProperty("report.interval"));
+		if (i >= 0)
+			return i;
+		return Integer.parseInt(pBenchmarkDefaults.getProperty("report.interval"));
+	}
+	
+	/**
+	 * Legt den Abstand der Zwischenergebnisse fest.
+	 * 
+	 * @param interval Abstand in Sekunden
+	 */
+	public void setReportInterval(int interval) 
+	{
+		if (interval < 0)
+			interval = Integer.parseInt(pBenchmarkDefaults.getProperty("report.interval"));
+		pBenchmark.setProperty("report.interval", Integer.toString(interval));
+	}
+	
+	/**
+	 * Gibt die Anzahl der Transaktionen pro Sekunde zurck, unterhalb der ein
+	 * Zwischenergebnis als Zusammenbruch gewertet wird. Bei 0 wird der
+	 * Durchsatz nicht berwacht.
+	 * 
+	 * @return TPS
+	 */
+	public double getAbortTPS() 
+	{
+		double d = Double.parseDouble(pBenchmark.getProperty("abort.tps"));
+		if (d >= 0)
+			return d;
+		return Double.parseDouble(pBenchmarkDefaults.getProperty("abort.tps"));
+	}
+	
+	/**
+	 * Legt die Anzahl der Transaktionen pro Sekunde fr den Abbruch fest.
+	 * 
+	 * @param tps TPS
+	 */
+	public void setAbortTPS(double tps) 
+	{
+		if (tps < 0)
+			tps = Double.parseDouble(pBenchmarkDefaults.getProperty("abort.tps"));
+		pBenchmark.setProperty("abort.tps", Double.toString(tps));
+	}
+	
+	/**
+	 * Gibt das 99. Perzentil der Transaktionsdauer in ms zurck, oberhalb
+	 * dessen ein Zwischenergebnis als Zusammenbruch gewertet wird. Bei 0 wird
+	 * die Dauer nicht berwacht.
+	 * 
+	 * @return Dauer
+	 */
+	public double getAbortP99() 
+	{
+		double d = Double.parseDouble(pBenchmark.getProperty("abort.p99"));
+		if (d >= 0)
+			return d;
+		return Double.parseDouble(pBenchmarkDefaults.getProperty("abort.p99"));
+	}
+	
+	/**
+	 * Legt das 99. Perzentil der Transaktionsdauer fr den Abbruch fest.
+	 * 
+	 * @param duration Dauer in ms
+	 */
+	public void setAbortP99(double duration) 
+	{
+		if (duration < 0)
+			duration = Double.parseDouble(pBenchmarkDefaults.getProperty("abort.p99"));
+		pBenchmark.setProperty("abort.p99", Double.toString(duration));
+	}
+	
+	/**
+	 * Gibt die Anzahl aufeinanderfolgender Zwischenergebnisse zurck, die als
+	 * Zusammenbruch gewertet werden mssen, bevor der Benchmark abgebrochen wird.
+	 * 
+	 * @return Anzahl
+	 */
+	public int getAbortReports() 
+	{
+		int i = Integer.parseInt(pBenchmark.getProperty("abort.reports"));
+		if (i > 0)
+			return i;
+		return Integer.parseInt(pBenchmarkDefaults.getProperty("abort.reports"));
+	}
+	
+	/**
+	 * Legt die Anzahl aufeinanderfolgender Zwischenergebnisse fr den Abbruch fest.
+	 * 
+	 * @param reports Anzahl
+	 */
+	public void setAbortReports(int reports) 
+	{
+		if (reports <= 0)
+			reports = Integer.parseInt(pBenchmarkDefaults.getProperty("abort.reports"));
+		pBenchmark.setProperty("abort.reports", Integer.toString(reports));
+	}
+	
+	/**
+	 * Gibt den Startwert fr die Zufallszahlen aller LoadDriver zurck.
+	 * 
+	 * @return Startwert oder null, falls keiner festgelegt ist
+	 */
+	public Long getRandomSeed() 
+	{
+		String seed = pBenchmark.getProperty("random.seed").trim();
+		if (seed.isEmpty())
+			return null;
+		return Long.parseLong(seed);
+	}
+	
+	/**
+	 * Legt den Startwert fr die Zufallszahlen aller LoadDriver fest.
+	 * 
+	 * @param seed Startwert
+	 */
+	public void setRandomSeed(long seed) 
+	{
+		pBenchmark.setProperty("random.seed", Long.toString(seed));
+	}
+	
+	/**
+	 * Gibt die Datei mit der Definition einer Kampagne zurck.
+	 * 
+	 * @return Dateiname oder eine leere Zeichenkette, falls nur ein einzelner
+	 *         Benchmark ausgefhrt wird
+	 */
+	public String getCampaignFile() 
+	{
+		return pBenchmark.getProperty("campaign.file").trim();
+	}
+	
+	/**
+	 * Legt die Datei mit der Definition einer Kampagne fest.
+	 * 
+	 * @param file Dateiname oder eine leere Zeichenkette
+	 */
+	public void setCampaignFile(String file) 
+	{
+		pBenchmark.setProperty("campaign.file", file);
+	}
+	
+	/**
+	 * Gibt zurck, ob die LoadDriver zwischen zwei Lufen bestehen bleiben,
+	 * statt geschlossen zu werden und sich erneut zu registrieren.
+	 * 
+	 * @return Wahrheitswert
+	 */
+	public boolean isPersistentLoadDrivers() 
+	{
+		return Boolean.parseBoolean(pBenchmark.getProperty("loaddriver.persistent").trim());
+	}
+	
+	/**
+	 * Legt fest, ob die LoadDriver zwischen zwei Lufen bestehen bleiben.
+	 * 
+	 * @param persistent Wahrheitswert
+	 */
+	public void setPersistentLoadDrivers(boolean persistent) 
+	{
+		pBenchmark.setProperty("loaddriver.persistent", Boolean.toString(persistent));
+	}
+	
+	/**
+	 * Gibt zurck, ob bestehende LoadDriver vor jedem Lauf die
+	 * Datenbankklasse neu laden und die Datenbankverbindungen neu aufbauen.
+	 * 
+	 * @return Wahrheitswert
+	 */
+	public boolean isReloadDatabase() 
+	{
+		return Boolean.parseBoolean(pBenchmark.getProperty("loaddriver.reload").trim());
+	}
+	
+	/**
+	 * Legt fest, ob bestehende LoadDriver vor jedem Lauf die Datenbankklasse
+	 * neu laden und die Datenbankverbindungen neu aufbauen.
+	 * 
+	 * @param reload Wahrheitswert
+	 */
+	public void setReloadDatabase(boolean reload) 
+	{
+		pBenchmark.setProperty("loaddriver.reload", Boolean.toString(reload));
+	}
+	
+	/**
+	 * Gibt einen benutzerdefinierten Konfigurationsparameter zurck.
+	 * 
+	 * @param key Parameterschlssel
+	 * @return Parameterwert
+	 */
+	public String getUser(String key)
+	{
+		return pBenchmark.getProperty("user." + key);
+	}
+	
+	/**
+	 * Legt einen benutzerdefinierten Konfigurationsparameter fest.
+	 * 
+	 * @param key Parameterschlssel
+	 * @param value Parameterwert
+	 */
+	public void setUser(String key, String value)
+	{
+		pBenchmark.setProperty("user." + key, value);
+	}
+	
+	/**
+	 * Gibt alle benutzerdefinierten Konfigurationsparameter zurck.
+	 * 
+	 * @return Parameterwerte nach Schlssel (ohne Prfix "user.") sortiert
+	 */
+	public TreeMap<String, String> getUserProperties()
+	{
+		TreeMap<String, String> properties = new TreeMap<String, String>();
+		for (String key : pBenchmark.stringPropertyNames())
+		{
+			if (key.startsWith("user."))
+				properties.put(key.substring("user.".length()), pBenchmark.getProperty(key));
+		}
+		return properties;
 	}
 	
 }
@@ -0,0 +1,347 @@
+package de.whs.dbi.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Ein Histogram erfasst Messwerte (z. B. Transaktionsdauern in ns) in
+ * logarithmisch-linear eingeteilten Klassen nach dem Vorbild von HdrHistogram.
+ * Jede Zweierpotenz wird in 2^precision gleich breite Klassen unterteilt,
+ * sodass der relative Fehler eines Perzentils unabhngig von der Gre des
+ * Wertes hchstens 2^-precision betrgt. Der Speicherbedarf ist durch den
+ * Wertebereich fest begrenzt.
+ * 
+ * Histogramme gleicher Genauigkeit lassen sich verlustfrei zusammenfassen.
+ * Bei der Serialisierung werden nur die belegten Klassen bertragen.
+ */
+public class Histogram implements Serializable
+{
+	private static final long serialVersionUID = 2924358374102624470L;
+
+	/**
+	 * Standardgenauigkeit: 2^7 Klassen je Zweierpotenz (Fehler < 0,8 %)
+	 */
+	public final static int DEFAULT_PRECISION = 7;
+
+	/**
+	 * Grte erfasste Zweierpotenz; grere Werte fallen in die letzte Klasse
+	 * (2^45 ns sind etwa 9,8 Stunden)
+	 */
+	protected final static int MAX_MAGNITUDE = 44;
+
+	private final int precision;
+	private long totalCount = 0;
+	private long sum = 0;
+	private long min = Long.MAX_VALUE;
+	private long max = 0;
+
+	/**
+	 * Hufigkeiten der Klassen; das Feld wird erst bei Bedarf vergrert
+	 */
+	private transient long[] counts = new long[0];
+
+	/**
+	 * Der Konstruktor initialisiert ein leeres Histogramm mit Standardgenauigkeit.
+	 */
+	public Histogram()
+	{
+		this(DEFAULT_PRECISION);
+	}
+
+	/**
+	 * Der Konstruktor initialisiert ein leeres Histogramm.
+	 * 
+	 * @param precision Anzahl der Bits fr die Klassen je Zweierpotenz (1 bis 14)
+	 */
+	public Histogram(int precision)
+	{
+		if (precision < 1 || precision > 14)
+		{
+			throw new IllegalArgumentException();
+		}
+		this.precision = precision;
+	}
+
+	/**
+	 * Erfasst einen Messwert. Negative Werte werden als 0 erfasst.
+	 * 
+	 * @param value Messwert
+	 */
+	public void record(long value)
+	{
+		record(value, 1);
+	}
+
+	/**
+	 * Erfasst einen Messwert mehrfach.
+	 * 
+	 * @param value Messwert
+	 * @param count Anzahl
+	 */
+	public void record(long value, long count)
+	{
+		if (value < 0)
+			value = 0;
+
+		int index = indexOf(value);
+		if (index >= counts.length)
+		{
+			counts = Arrays.copyOf(counts, Math.min(maxIndex() + 1, Math.max(index + 1, 2 * counts.length)));
+		}
+		counts[index] += count;
+		totalCount += count;
+		sum += value * count;
+		if (value < min)
+			min = value;
+		if (value > max)
+			max = value;
+	}
+
+	/**
+	 * Fasst ein anderes Histogramm derselben Genauigkeit mit diesem zusammen.
+	 * 
+	 * @param other Histogramm
+	 */
+	public void add(Histogram other)
+	{
+		if (other.precision != precision)
+		{
+			throw new IllegalArgumentException("Histogramme unterschiedlicher Genauigkeit");
+		}
+		if (other.counts.length > counts.length)
+		{
+			counts = Arrays.copyOf(counts, other.counts.length);
+		}
+		for (int i = 0; i < other.counts.length; i++)
+		{
+			counts[i] += other.counts[i];
+		}
+		totalCount += other.totalCount;
+		sum += other.sum;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+
+	/**
+	 * Gibt die Anzahl der erfassten Werte zurck.
+	 * 
+	 * @return Anzahl
+	 */
+	public long getTotalCount()
+	{
+		return totalCount;
+	}
+
+	/**
+	 * Gibt den kleinsten erfassten Wert zurck.
+	 * 
+	 * @return Minimum oder 0, falls keine Werte erfasst wurden
+	 */
+	public long getMin()
+	{
+		return totalCount == 0 ? 0 : min;
+	}
+
+	/**
+	 * Gibt den grten erfassten Wert zurck.
+	 * 
+	 * @return Maximum
+	 */
+	public long getMax()
+	{
+		return max;
+	}
+
+	/**
+	 * Gibt den Mittelwert der erfassten Werte zurck.
+	 * 
+	 * @return Mittelwert
+	 */
+	public double getMean()
+	{
+		if (totalCount == 0)
+			return 0;
+		return (double) sum / (double) totalCount;
+	}
+
+	/**
+	 * Gibt den Wert zu einem Perzentil zurck, d. h. den grten Wert der
+	 * Klasse, bis zu der mindestens der angegebene Anteil der Werte liegt.
+	 * 
+	 * @param percentile Perzentil (0 bis 100)
+	 * @return Wert oder 0, falls keine Werte erfasst wurden
+	 */
+	public long getValueAtPercentile(double percentile)
+	{
+		if (totalCount == 0)
+			return 0;
+
+		long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * totalCount));
+		long count = 0;
+		for (int i = 0; i < counts.length; i++)
+		{
+			count += counts[i];
+			if (count >= target)
+			{
+				return Math.max(min, Math.min(max, highestValueOf(i)));
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Gibt die Genauigkeit des Histogramms zurck.
+	 * 
+	 * @return Anzahl der Bits fr die Klassen je Zweierpotenz
+	 */
+	public int getPrecision()
+	{
+		return precision;
+	}
+
+	/**
+	 * Berechnet die Klasse eines Wertes.
+	 * 
+	 * @param value Wert (nicht negativ)
+	 * @return Index der Klasse
+	 */
+	protected int indexOf(long value)
+	{
+		if (value < (1L << precision))
+			return (int) value;
+
+		int magnitude = 63 - Long.numberOfLeadingZeros(value);
+		if (magnitude > MAX_MAGNITUDE)
+			return maxIndex();
+
+		int subBucket = (int) (value >>> (magnitude - precision)) - (1 << precision);
+		return ((magnitude - precision + 1) << precision) + subBucket;
+	}
+
+	/**
+	 * Berechnet den kleinsten Wert einer Klasse.
+	 * 
+	 * @param index Index der Klasse
+	 * @return Kleinster Wert
+	 */
+	protected long lowestValueOf(int index)
+	{
+		if (index < (1 << precision))
+			return index;
+
+		int bucket = index >>> precision;
+		long subBucket = index & ((1 << precision) - 1);
+		return ((1L << precision) + subBucket) << (bucket - 1);
+	}
+
+	/**
+	 * Berechnet den grten Wert einer Klasse.
+	 * 
+	 * @param index Index der Klasse
+	 * @return Grter Wert
+	 */
+	protected long highestValueOf(int index)
+	{
+		if (index >= maxIndex())
+			return Long.MAX_VALUE;
+		return lowestValueOf(index + 1) - 1;
+	}
+
+	/**
+	 * Gibt den Index der letzten Klasse zurck.
+	 * 
+	 * @return Index
+	 */
+	protected int maxIndex()
+	{
+		return ((MAX_MAGNITUDE - precision + 2) << precision) - 1;
+	}
+
+	/**
+	 * Serialisiert das Histogramm kompakt: bertragen werden nur die belegten
+	 * Klassen als Paare aus Indexabstand und Hufigkeit in variabler Lnge.
+	 * 
+	 * @param out Ausgabestrom
+	 * @throws IOException
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException
+	{
+		out.defaultWriteObject();
+
+		int used = 0;
+		for (long count : counts)
+		{
+			if (count != 0)
+				used++;
+		}
+		writeVarLong(out, used);
+
+		int last = 0;
+		for (int i = 0; i < counts.length; i++)
+		{
+			if (counts[i] != 0)
+			{
+				writeVarLong(out, i - last);
+				writeVarLong(out, counts[i]);
+				last = i;
+			}
+		}
+	}
+
+	/**
+	 * Liest ein kompakt serialisiertes Histogramm.
+	 * 
+	 * @param in Eingabestrom
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		in.defaultReadObject();
+
+		int used = (int) readVarLong(in);
+		int[] indices = new int[used];
+		long[] values = new long[used];
+		int last = 0;
+		for (int i = 0; i < used; i++)
+		{
+			last += (int) readVarLong(in);
+			indices[i] = last;
+			values[i] = readVarLong(in);
+		}
+
+		counts = new long[used == 0 ? 0 : indices[used - 1] + 1];
+		for (int i = 0; i < used; i++)
+		{
+			counts[indices[i]] = values[i];
+		}
+	}
+
+	private static void writeVarLong(ObjectOutputStream out, long value) throws IOException
+	{
+		while ((value & ~0x7FL) != 0)
+		{
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	private static long readVarLong(ObjectInputStream in) throws IOException
+	{
+		long value = 0;
+		int shift = 0;
+		int b;
+		do
+		{
+			b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+}
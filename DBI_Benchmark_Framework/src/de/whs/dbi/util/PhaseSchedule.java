@@ -0,0 +1,125 @@
+package de.whs.dbi.util;
+
+import java.io.Serializable;
+
+import de.whs.dbi.benchmark.BenchmarkIF.STAGE;
+
+/**
+ * Ein PhaseSchedule legt die Grenzen der Phasen WARMUP, BENCHMARK und
+ * COOLDOWN als absolute Zeitpunkte fest. Der Benchmark Controller verteilt
+ * den Ablaufplan vor dem Lauf an alle LoadDriver, die ihn in ihre eigene
+ * Uhr umrechnen. Eine Transaktion wird der Phase ihres Startzeitpunkts
+ * zugeordnet, sodass alle LoadDriver dasselbe Zeitfenster messen.
+ * 
+ * Die Zeitpunkte werden in ns angegeben. Vergleiche erfolgen ber
+ * Differenzen, damit auch Werte von System.nanoTime() verwendet werden knnen.
+ */
+public class PhaseSchedule implements Serializable
+{
+	private static final long serialVersionUID = -2401518897374853562L;
+
+	private final long warmupStart;
+	private final long benchmarkStart;
+	private final long cooldownStart;
+	private final long end;
+
+	/**
+	 * Der Konstruktor initialisiert den Ablaufplan aus den Grenzen der Phasen.
+	 * 
+	 * @param warmupStart Beginn der Phase WARMUP in ns
+	 * @param benchmarkStart Beginn der Phase BENCHMARK in ns
+	 * @param cooldownStart Beginn der Phase COOLDOWN in ns
+	 * @param end Ende des Benchmarks in ns
+	 */
+	public PhaseSchedule(long warmupStart, long benchmarkStart, long cooldownStart, long end)
+	{
+		if (benchmarkStart - warmupStart < 0 || cooldownStart - benchmarkStart < 0 || end - cooldownStart < 0)
+		{
+			throw new IllegalArgumentException();
+		}
+		this.warmupStart = warmupStart;
+		this.benchmarkStart = benchmarkStart;
+		this.cooldownStart = cooldownStart;
+		this.end = end;
+	}
+
+	/**
+	 * Erzeugt einen Ablaufplan aus einem Startzeitpunkt und den Dauern der
+	 * Phasen.
+	 * 
+	 * @param start Beginn der Phase WARMUP in ns
+	 * @param warmup Dauer der Phase WARMUP in s
+	 * @param benchmark Dauer der Phase BENCHMARK in s
+	 * @param cooldown Dauer der Phase COOLDOWN in s
+	 * @return Ablaufplan
+	 */
+	public static PhaseSchedule create(long start, int warmup, int benchmark, int cooldown)
+	{
+		long benchmarkStart = start + warmup * 1000000000L;
+		long cooldownStart = benchmarkStart + benchmark * 1000000000L;
+		return new PhaseSchedule(start, benchmarkStart, cooldownStart, cooldownStart + cooldown * 1000000000L);
+	}
+
+	/**
+	 * Gibt die Phase zu einem Zeitpunkt zurck. Vor dem Beginn ist das READY,
+	 * nach dem Ende FINISHED.
+	 * 
+	 * @param time Zeitpunkt in ns
+	 * @return Phase
+	 */
+	public STAGE getStage(long time)
+	{
+		if (time - warmupStart < 0)
+			return STAGE.READY;
+		if (time - benchmarkStart < 0)
+			return STAGE.WARMUP;
+		if (time - cooldownStart < 0)
+			return STAGE.BENCHMARK;
+		if (time - end < 0)
+			return STAGE.COOLDOWN;
+		return STAGE.FINISHED;
+	}
+
+	/**
+	 * Gibt den Beginn einer Phase zurck. Fr FINISHED ist das das Ende des
+	 * Benchmarks.
+	 * 
+	 * @param stage Phase (WARMUP, BENCHMARK, COOLDOWN oder FINISHED)
+	 * @return Zeitpunkt in ns
+	 */
+	public long getStart(STAGE stage)
+	{
+		switch (stage)
+		{
+			case WARMUP:
+				return warmupStart;
+			case BENCHMARK:
+				return benchmarkStart;
+			case COOLDOWN:
+				return cooldownStart;
+			case FINISHED:
+				return end;
+			default:
+				throw new IllegalArgumentException("Kein Beginn fr Phase " + stage);
+		}
+	}
+
+	/**
+	 * Rechnet den Ablaufplan in eine andere Uhr um.
+	 * 
+	 * @param offset Abstand der Uhr des Ablaufplans zur anderen Uhr in ns
+	 *        (Zeit dieser Uhr minus Zeit der anderen Uhr)
+	 * @return Ablaufplan in der anderen Uhr
+	 */
+	public PhaseSchedule shift(long offset)
+	{
+		return new PhaseSchedule(warmupStart - offset, benchmarkStart - offset, cooldownStart - offset, end - offset);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "WARMUP " + warmupStart + ", BENCHMARK " + benchmarkStart + ", COOLDOWN " + cooldownStart + ", FINISHED " + end;
+	}
+
+}
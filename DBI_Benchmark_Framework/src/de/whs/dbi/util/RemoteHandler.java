@@ -1,53 +1,153 @@
 package de.whs.dbi.util;
 
 import java.rmi.RemoteException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.ErrorManager;
 import java.util.logging.Handler;
+import java.util.logging.Level;
 import java.util.logging.LogRecord;
 
 /**
  * Ein Remote Handler ist ein Log Handler, der alle Logmeldungen an den
  * Remote Logger weiterleitet.
+ * 
+ * Die Meldungen werden nicht im aufrufenden Thread bertragen, sondern in
+ * einen beschrnkten Ringpuffer eingefgt, den ein Hintergrund-Thread
+ * gebndelt an den Remote Logger bertrgt. Die Parameter einer Meldung werden
+ * erst dabei formatiert. Ist der Puffer voll, wird die Meldung verworfen und
+ * gezhlt, damit die Transaktionen nicht auf das Protokoll warten mssen.
  */
 public class RemoteHandler extends Handler
 {
+	/**
+	 * Maximale Anzahl von Meldungen je bertragung
+	 */
+	public final static int BATCH_SIZE = 256;
+
+	/**
+	 * Wartezeit des Hintergrund-Threads bei leerem Puffer in ns
+	 */
+	protected final static long IDLE_NANOS = 10000000L;
+
 	/**
 	 * Remote-Logger
 	 */
 	protected RemoteLoggerIF logger;
 
+	protected RingBuffer<LogRecord> buffer;
+	protected AtomicLong dropped = new AtomicLong();
+	protected long reportedDropped = 0;
+	protected volatile boolean closed = false;
+	protected Thread drainer;
+
 	/**
-	 * Der Konstruktor initialisiert den Remote-Handler.
+	 * Der Konstruktor initialisiert den Remote-Handler und startet den
+	 * Hintergrund-Thread.
 	 * 
 	 * @param logger Remote-Logger
+	 * @param capacity Kapazitt des Puffers in Meldungen
 	 */
-	public RemoteHandler(RemoteLoggerIF logger)
+	public RemoteHandler(RemoteLoggerIF logger, int capacity)
 	{
 		this.logger = logger;
+		this.buffer = new RingBuffer<LogRecord>(capacity);
+
+		drainer = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				while (!closed)
+				{
+					if (drain() == 0)
+						LockSupport.parkNanos(IDLE_NANOS);
+				}
+			}
+		}, "RemoteHandler");
+		drainer.setDaemon(true);
+		drainer.start();
+	}
+
+	/**
+	 * Gibt die Anzahl der verworfenen Meldungen zurck.
+	 * 
+	 * @return Anzahl
+	 */
+	public long getDropped()
+	{
+		return dropped.get();
 	}
 
 	@Override
 	public void close() throws SecurityException
 	{
-
+		closed = true;
+		LockSupport.unpark(drainer);
+		try
+		{
+			drainer.join();
+		} catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		flush();
 	}
 
 	@Override
 	public void flush()
 	{
-
+		while (drain() > 0)
+			;
 	}
 
 	@Override
-	public void publish(LogRecord arg0)
+	public void publish(LogRecord record)
+	{
+		if (closed || !isLoggable(record))
+			return;
+		if (!buffer.offer(record))
+			dropped.incrementAndGet();
+	}
+
+	/**
+	 * bertrgt bis zu {@link #BATCH_SIZE} Meldungen aus dem Puffer an den
+	 * Remote Logger. Wurden seit der letzten bertragung Meldungen verworfen,
+	 * wird zustzlich eine Warnung bertragen.
+	 * 
+	 * @return Anzahl der bertragenen Meldungen
+	 */
+	protected synchronized int drain()
 	{
+		LogRecord[] records = new LogRecord[BATCH_SIZE + 1];
+		int count = 0;
+		LogRecord record;
+		while (count < BATCH_SIZE && (record = buffer.poll()) != null)
+		{
+			records[count++] = record;
+		}
+
+		long lost = dropped.get();
+		if (lost > reportedDropped)
+		{
+			LogRecord warning = new LogRecord(Level.WARNING, "{0} Protokollmeldungen wurden verworfen, da der Puffer voll war");
+			warning.setParameters(new Object[] { lost - reportedDropped });
+			warning.setLoggerName(count > 0 ? records[0].getLoggerName() : null);
+			records[count++] = warning;
+			reportedDropped = lost;
+		}
+
+		if (count == 0)
+			return 0;
 		try
 		{
-			logger.logMessage(arg0);
+			logger.logMessages(Arrays.copyOf(records, count));
 		} catch (RemoteException e)
 		{
 			reportError(null, e, ErrorManager.WRITE_FAILURE);
 		}
+		return count;
 	}
 
 }
@@ -42,4 +42,13 @@ public class RemoteLogger extends UnicastRemoteObject implements RemoteLoggerIF
 		logger.log(record);
 	}
 
+	@Override
+	public synchronized void logMessages(LogRecord[] records) throws RemoteException
+	{
+		for (LogRecord record : records)
+		{
+			logger.log(record);
+		}
+	}
+
 }
@@ -16,4 +16,12 @@ public interface RemoteLoggerIF extends Remote
 	 * @throws RemoteException
 	 */
 	public void logMessage(LogRecord record) throws RemoteException;
+
+	/**
+	 * Gibt mehrere LogRecords in einem Aufruf an den Logger weiter.
+	 * 
+	 * @param records LogRecords
+	 * @throws RemoteException
+	 */
+	public void logMessages(LogRecord[] records) throws RemoteException;
 }
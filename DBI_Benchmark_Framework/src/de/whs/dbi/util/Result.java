@@ -15,7 +15,11 @@ public class Result implements Serializable
 	private int successfullTransactions = 0;
 	private int failedTransactions = 0;
 	private long duration = 0;
+	private Histogram latencies = new Histogram();
+	private long retries = 0;
+	private Histogram retriesPerCommit = new Histogram();
 	private int benchmarkTime;
+	private TimeSeries timeSeries;
 	private ArrayList<Result> subResults = new ArrayList<Result>();
 
 	/**
@@ -46,10 +50,51 @@ public class Result implements Serializable
 	 * @return Dauer
 	 */
 	public long getDuration()
+	{
+		return duration / 1000000;
+	}
+
+	/**
+	 * Gibt die gesamte Dauer der erfolgreichen Transaktionen in ns zurck.
+	 * 
+	 * @return Dauer
+	 */
+	public long getDurationNanos()
 	{
 		return duration;
 	}
 
+	/**
+	 * Gibt das Histogramm der Dauern der erfolgreichen Transaktionen in ns zurck.
+	 * 
+	 * @return Histogramm
+	 */
+	public Histogram getLatencies()
+	{
+		return latencies;
+	}
+
+	/**
+	 * Gibt die Dauer einer erfolgreichen Transaktion zu einem Perzentil in ms zurck.
+	 * 
+	 * @param percentile Perzentil (0 bis 100), z. B. 99.9
+	 * @return Dauer
+	 */
+	public double getPercentileDuration(double percentile)
+	{
+		return latencies.getValueAtPercentile(percentile) / 1000000.0;
+	}
+
+	/**
+	 * Gibt die maximale Dauer einer erfolgreichen Transaktion in ms zurck.
+	 * 
+	 * @return Dauer
+	 */
+	public double getMaxDuration()
+	{
+		return latencies.getMax() / 1000000.0;
+	}
+
 	/**
 	 * Gibt die Anzahl der erfolgreichen Transaktionen zurck.
 	 * 
@@ -63,12 +108,69 @@ public class Result implements Serializable
 	/**
 	 * Erhht die Anzahl der erfolgreichen Transaktionen.
 	 * 
-	 * @param duration Dauer
+	 * @param duration Dauer in ns (gemessen mit System.nanoTime())
 	 */
 	public void incSuccessfullTransactions(long duration)
+	{
+		incSuccessfullTransactions(duration, 0);
+	}
+
+	/**
+	 * Erhht die Anzahl der erfolgreichen Transaktionen.
+	 * 
+	 * @param duration Dauer in ns (gemessen mit System.nanoTime())
+	 * @param retries Anzahl der Wiederholungen vor dem erfolgreichen Versuch
+	 */
+	public void incSuccessfullTransactions(long duration, int retries)
 	{
 		successfullTransactions++;
 		this.duration += duration;
+		latencies.record(duration);
+		this.retries += retries;
+		retriesPerCommit.record(retries);
+	}
+
+	/**
+	 * Gibt die Anzahl der Wiederholungen nach Serialisierungsfehlern und
+	 * Deadlocks zurck, sowohl der erfolgreichen als auch der
+	 * fehlgeschlagenen Transaktionen.
+	 * 
+	 * @return Anzahl
+	 */
+	public long getRetries()
+	{
+		return retries;
+	}
+
+	/**
+	 * Gibt das Histogramm der Wiederholungen je erfolgreicher Transaktion
+	 * zurck.
+	 * 
+	 * @return Histogramm
+	 */
+	public Histogram getRetriesPerCommit()
+	{
+		return retriesPerCommit;
+	}
+
+	/**
+	 * Gibt die Zeitreihe ber alle Phasen zurck.
+	 * 
+	 * @return Zeitreihe oder null, falls keine erfasst wurde
+	 */
+	public TimeSeries getTimeSeries()
+	{
+		return timeSeries;
+	}
+
+	/**
+	 * Legt die Zeitreihe ber alle Phasen fest.
+	 * 
+	 * @param timeSeries Zeitreihe
+	 */
+	public void setTimeSeries(TimeSeries timeSeries)
+	{
+		this.timeSeries = timeSeries;
 	}
 
 	/**
@@ -85,8 +187,19 @@ public class Result implements Serializable
 	 * Erhht die Anzahl der fehlgeschlagenen Transaktionen.
 	 */
 	public void incFailedTransactions()
+	{
+		incFailedTransactions(0);
+	}
+
+	/**
+	 * Erhht die Anzahl der fehlgeschlagenen Transaktionen.
+	 * 
+	 * @param retries Anzahl der Wiederholungen vor dem Abbruch
+	 */
+	public void incFailedTransactions(int retries)
 	{
 		failedTransactions++;
+		this.retries += retries;
 	}
 
 	/**
@@ -107,9 +220,39 @@ public class Result implements Serializable
 	public void addSubResult(Result subResult)
 	{
 		subResults.add(subResult);
-		successfullTransactions += subResult.getSuccessfullTransactions();
-		failedTransactions += subResult.getFailedTransactions();
-		duration += subResult.getDuration();
+		merge(subResult);
+	}
+
+	/**
+	 * Fasst ein gleichartiges Ergebnis mit diesem Ergebnis zusammen, ohne es
+	 * als Teilergebnis aufzunehmen.
+	 * 
+	 * @param other Ergebnis
+	 */
+	public void merge(Result other)
+	{
+		successfullTransactions += other.getSuccessfullTransactions();
+		failedTransactions += other.getFailedTransactions();
+		duration += other.getDurationNanos();
+		latencies.add(other.getLatencies());
+		retries += other.getRetries();
+		retriesPerCommit.add(other.getRetriesPerCommit());
+		if (other.getTimeSeries() != null)
+		{
+			if (timeSeries == null)
+				timeSeries = new TimeSeries(other.getTimeSeries().getInterval());
+			timeSeries.add(other.getTimeSeries());
+		}
+	}
+
+	/**
+	 * Gibt die Dauer der Benchmark-Phase zurck, auf die sich das Ergebnis bezieht.
+	 * 
+	 * @return Dauer
+	 */
+	public int getBenchmarkTime()
+	{
+		return benchmarkTime;
 	}
 
 	/**
@@ -124,6 +267,18 @@ public class Result implements Serializable
 		return (int) ((double) successfullTransactions / (double) benchmarkTime);
 	}
 
+	/**
+	 * Gibt die Anzahl der Transaktionen pro Sekunde (TPS) ohne Rundung zurck.
+	 * 
+	 * @return TPS
+	 */
+	public double getThroughput()
+	{
+		if (benchmarkTime <= 0)
+			return 0;
+		return (double) successfullTransactions / (double) benchmarkTime;
+	}
+
 	/**
 	 * Gibt die durchschnittliche Dauer einer Transaktion in ms zurck.
 	 * 
@@ -133,7 +288,7 @@ public class Result implements Serializable
 	{
 		if (successfullTransactions <= 0)
 			return 0;
-		return (double) duration / (double) successfullTransactions;
+		return (double) duration / 1000000.0 / (double) successfullTransactions;
 	}
 
 }
@@ -0,0 +1,109 @@
+package de.whs.dbi.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ein RingBuffer ist eine beschrnkte, sperrfreie Warteschlange fr mehrere
+ * Erzeuger und einen Verbraucher nach dem Verfahren von D. Vyukov. Jeder Platz
+ * trgt eine Sequenznummer, ber die Erzeuger und Verbraucher erkennen, ob der
+ * Platz frei bzw. belegt ist. Ist die Warteschlange voll, wird das Element
+ * nicht eingefgt, statt den Erzeuger zu blockieren.
+ * 
+ * Es darf immer nur ein Thread gleichzeitig Elemente entnehmen.
+ * 
+ * @param <E> Typ der Elemente
+ */
+public class RingBuffer<E>
+{
+	private final int mask;
+	private final AtomicReferenceArray<E> elements;
+	private final AtomicLongArray sequences;
+	private final AtomicLong tail = new AtomicLong();
+	private long head = 0;
+
+	/**
+	 * Der Konstruktor initialisiert eine leere Warteschlange.
+	 * 
+	 * @param capacity Mindestkapazitt; sie wird auf die nchste Zweierpotenz
+	 *        aufgerundet
+	 */
+	public RingBuffer(int capacity)
+	{
+		if (capacity <= 0 || capacity > (1 << 30))
+		{
+			throw new IllegalArgumentException();
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity)
+			size <<= 1;
+
+		mask = size - 1;
+		elements = new AtomicReferenceArray<E>(size);
+		sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++)
+		{
+			sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * Gibt die Kapazitt zurck.
+	 * 
+	 * @return Kapazitt
+	 */
+	public int getCapacity()
+	{
+		return mask + 1;
+	}
+
+	/**
+	 * Fgt ein Element ein, sofern Platz vorhanden ist. Die Methode blockiert
+	 * nicht.
+	 * 
+	 * @param element Element
+	 * @return true, falls das Element eingefgt wurde
+	 */
+	public boolean offer(E element)
+	{
+		while (true)
+		{
+			long position = tail.get();
+			int index = (int) (position & mask);
+			long difference = sequences.get(index) - position;
+			if (difference == 0)
+			{
+				if (tail.compareAndSet(position, position + 1))
+				{
+					elements.lazySet(index, element);
+					sequences.set(index, position + 1);
+					return true;
+				}
+			} else if (difference < 0)
+			{
+				// Der Platz wurde vom Verbraucher noch nicht freigegeben
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Entnimmt das lteste Element.
+	 * 
+	 * @return Element oder null, falls die Warteschlange leer ist
+	 */
+	public E poll()
+	{
+		int index = (int) (head & mask);
+		if (sequences.get(index) != head + 1)
+			return null;
+
+		E element = elements.get(index);
+		elements.lazySet(index, null);
+		sequences.set(index, head + mask + 1);
+		head++;
+		return element;
+	}
+
+}
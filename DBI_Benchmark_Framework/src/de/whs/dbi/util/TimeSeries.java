@@ -0,0 +1,257 @@
+package de.whs.dbi.util;
+
+import java.io.PrintWriter;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Locale;
+
+import de.whs.dbi.benchmark.BenchmarkIF.STAGE;
+
+/**
+ * Eine TimeSeries erfasst Durchsatz, Fehler, Wiederholungen und Dauern der
+ * Transaktionen in festen Zeitintervallen (Standard: 1 s) ber alle Phasen
+ * eines Benchmark-Laufs. Die Intervalle sind an der Systemzeit ausgerichtet,
+ * sodass sich die Zeitreihen mehrerer Worker und LoadDriver zusammenfassen
+ * lassen.
+ * 
+ * Eine Zeitreihe wird whrend der Messung nur von einem Thread beschrieben.
+ * Die beendeten Intervalle knnen whrenddessen ber
+ * {@link #snapshot(long, long)} von anderen Threads abgefragt werden.
+ */
+public class TimeSeries implements Serializable
+{
+	private static final long serialVersionUID = 3380651484311659101L;
+
+	/**
+	 * Genauigkeit der Histogramme je Intervall (Fehler < 3,2 %), damit
+	 * auch lange Lufe mit vielen Workern wenig Speicher bentigen
+	 */
+	public final static int PRECISION = 5;
+
+	private int interval;
+	private ArrayList<TimeSeriesBucket> buckets = new ArrayList<TimeSeriesBucket>();
+	private transient TimeSeriesBucket current;
+
+	/**
+	 * Der Konstruktor initialisiert eine leere Zeitreihe.
+	 * 
+	 * @param interval Lnge eines Intervalls in ms
+	 */
+	public TimeSeries(int interval)
+	{
+		if (interval <= 0)
+		{
+			throw new IllegalArgumentException();
+		}
+		this.interval = interval;
+	}
+
+	/**
+	 * Gibt die Lnge eines Intervalls zurck.
+	 * 
+	 * @return Lnge in ms
+	 */
+	public int getInterval()
+	{
+		return interval;
+	}
+
+	/**
+	 * Gibt die abgeschlossenen Intervalle in zeitlicher Reihenfolge zurck.
+	 * 
+	 * @return Intervalle
+	 */
+	public ArrayList<TimeSeriesBucket> getBuckets()
+	{
+		return buckets;
+	}
+
+	/**
+	 * Erfasst eine erfolgreiche Transaktion.
+	 * 
+	 * @param stage Phase
+	 * @param time Zeitpunkt in ms seit 1970 (UTC)
+	 * @param duration Dauer in ns
+	 * @param busy Belegungszeit der Datenbankverbindung in ns
+	 * @param retries Anzahl der Wiederholungen
+	 */
+	public synchronized void recordCommit(STAGE stage, long time, long duration, long busy, int retries)
+	{
+		bucket(stage, time).recordCommit(duration, busy, retries);
+	}
+
+	/**
+	 * Erfasst eine fehlgeschlagene Transaktion.
+	 * 
+	 * @param stage Phase
+	 * @param time Zeitpunkt in ms seit 1970 (UTC)
+	 * @param busy Belegungszeit der Datenbankverbindung in ns
+	 * @param retries Anzahl der Wiederholungen
+	 */
+	public synchronized void recordFailure(STAGE stage, long time, long busy, int retries)
+	{
+		bucket(stage, time).recordFailure(busy, retries);
+	}
+
+	/**
+	 * Schliet das aktuelle Intervall ab.
+	 */
+	public synchronized void close()
+	{
+		if (current != null)
+		{
+			buckets.add(current);
+			current = null;
+		}
+	}
+
+	/**
+	 * Erzeugt eine Kopie der beendeten Intervalle ab einem Zeitpunkt. Das
+	 * aktuelle Intervall wird einbezogen, sobald seine Zeit abgelaufen ist,
+	 * auch wenn es noch nicht abgeschlossen wurde, weil der Worker seitdem
+	 * keine Transaktion erfasst hat (z. B. wegen Bedenkzeit oder langer
+	 * Transaktionen).
+	 * 
+	 * @param since Zeitpunkt in ms seit 1970 (UTC), ab dem die Intervalle
+	 *        beginnen
+	 * @param now Aktueller Zeitpunkt in ms seit 1970 (UTC) in derselben Uhr
+	 *        wie die erfassten Transaktionen
+	 * @return Zeitreihe
+	 */
+	public synchronized TimeSeries snapshot(long since, long now)
+	{
+		TimeSeries snapshot = new TimeSeries(interval);
+		for (int i = buckets.size() - 1; i >= 0 && buckets.get(i).getStart() >= since; i--)
+		{
+			snapshot.buckets.add(0, buckets.get(i).copy());
+		}
+		if (current != null && current.getStart() >= since && current.getStart() + interval <= now)
+		{
+			snapshot.buckets.add(current.copy());
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Fasst alle Intervalle in einem Zeitraum zu einem Intervall zusammen. Die
+	 * Phase ist die des letzten Intervalls.
+	 * 
+	 * @param from Beginn des Zeitraums in ms seit 1970 (UTC)
+	 * @param to Ende des Zeitraums (exklusiv) in ms seit 1970 (UTC)
+	 * @return Intervall oder null, falls im Zeitraum keine Intervalle liegen
+	 */
+	public synchronized TimeSeriesBucket summarize(long from, long to)
+	{
+		TimeSeriesBucket summary = null;
+		for (TimeSeriesBucket bucket : buckets)
+		{
+			if (bucket.getStart() >= from && bucket.getStart() < to)
+			{
+				if (summary == null)
+					summary = new TimeSeriesBucket(from, bucket.getStage(), PRECISION);
+				summary.add(bucket);
+				summary.setStage(bucket.getStage());
+			}
+		}
+		return summary;
+	}
+
+	/**
+	 * Fasst eine andere Zeitreihe mit gleicher Intervalllnge mit dieser
+	 * zusammen. Intervalle mit gleichem Beginn und gleicher Phase werden
+	 * addiert.
+	 * 
+	 * @param other Zeitreihe
+	 */
+	public synchronized void add(TimeSeries other)
+	{
+		if (other.interval != interval)
+		{
+			throw new IllegalArgumentException("Zeitreihen mit unterschiedlichen Intervallen");
+		}
+
+		ArrayList<TimeSeriesBucket> merged = new ArrayList<TimeSeriesBucket>(buckets);
+		for (TimeSeriesBucket bucket : other.buckets)
+		{
+			merged.add(bucket.copy());
+		}
+		Collections.sort(merged, new Comparator<TimeSeriesBucket>()
+		{
+			@Override
+			public int compare(TimeSeriesBucket a, TimeSeriesBucket b)
+			{
+				if (a.getStart() != b.getStart())
+					return a.getStart() < b.getStart() ? -1 : 1;
+				return a.getStage().compareTo(b.getStage());
+			}
+		});
+
+		buckets = new ArrayList<TimeSeriesBucket>();
+		TimeSeriesBucket last = null;
+		for (TimeSeriesBucket bucket : merged)
+		{
+			if (last != null && last.getStart() == bucket.getStart() && last.getStage() == bucket.getStage())
+			{
+				last.add(bucket);
+			} else
+			{
+				buckets.add(bucket);
+				last = bucket;
+			}
+		}
+	}
+
+	/**
+	 * Schreibt die Zeitreihe im CSV-Format. Die Zeit wird in Sekunden relativ
+	 * zu einem Bezugszeitpunkt angegeben, die Dauern in ms.
+	 * 
+	 * @param out Ausgabe
+	 * @param name Bezeichnung der Zeitreihe (erste Spalte)
+	 * @param origin Bezugszeitpunkt in ms seit 1970 (UTC)
+	 */
+	public void writeCSV(PrintWriter out, String name, long origin)
+	{
+		for (TimeSeriesBucket bucket : buckets)
+		{
+			Histogram latencies = bucket.getLatencies();
+			out.printf(Locale.ROOT, "%s;%.3f;%s;%d;%d;%d;%.2f;%.3f;%.3f;%.3f;%.3f;%.3f\n", name,
+					(bucket.getStart() - origin) / 1000.0, bucket.getStage(), bucket.getCommits(), bucket.getFailures(),
+					bucket.getRetries(), bucket.getCommits() * 1000.0 / interval,
+					latencies.getValueAtPercentile(50) / 1000000.0, latencies.getValueAtPercentile(90) / 1000000.0,
+					latencies.getValueAtPercentile(99) / 1000000.0, latencies.getValueAtPercentile(99.9) / 1000000.0,
+					latencies.getMax() / 1000000.0);
+		}
+	}
+
+	/**
+	 * Gibt die Kopfzeile fr {@link #writeCSV(PrintWriter, String, long)} zurck.
+	 * 
+	 * @return Kopfzeile
+	 */
+	public static String getCSVHeader()
+	{
+		return "name;time_s;stage;commits;failures;retries;tps;p50_ms;p90_ms;p99_ms;p99.9_ms;max_ms";
+	}
+
+	/**
+	 * Gibt das Intervall fr einen Zeitpunkt und eine Phase zurck. Beginnt ein
+	 * neues Intervall oder wechselt die Phase, wird das aktuelle abgeschlossen.
+	 * 
+	 * @param stage Phase
+	 * @param time Zeitpunkt in ms seit 1970 (UTC)
+	 * @return Intervall
+	 */
+	protected TimeSeriesBucket bucket(STAGE stage, long time)
+	{
+		long start = time - time % interval;
+		if (current == null || current.getStart() != start || current.getStage() != stage)
+		{
+			close();
+			current = new TimeSeriesBucket(start, stage, PRECISION);
+		}
+		return current;
+	}
+
+}
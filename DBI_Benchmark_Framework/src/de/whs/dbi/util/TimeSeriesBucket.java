@@ -0,0 +1,174 @@
+package de.whs.dbi.util;
+
+import java.io.Serializable;
+
+import de.whs.dbi.benchmark.BenchmarkIF.STAGE;
+
+/**
+ * Ein TimeSeriesBucket fasst alle Transaktionen zusammen, die innerhalb eines
+ * Intervalls einer Zeitreihe in einer bestimmten Phase beendet wurden.
+ */
+public class TimeSeriesBucket implements Serializable
+{
+	private static final long serialVersionUID = -6817328542707035012L;
+
+	private long start;
+	private STAGE stage;
+	private long commits = 0;
+	private long failures = 0;
+	private long retries = 0;
+	private long busy = 0;
+	private Histogram latencies;
+
+	/**
+	 * Der Konstruktor initialisiert ein leeres Intervall.
+	 * 
+	 * @param start Beginn des Intervalls in ms seit 1970 (UTC)
+	 * @param stage Phase
+	 * @param precision Genauigkeit des Histogramms
+	 */
+	public TimeSeriesBucket(long start, STAGE stage, int precision)
+	{
+		this.start = start;
+		this.stage = stage;
+		this.latencies = new Histogram(precision);
+	}
+
+	/**
+	 * Gibt den Beginn des Intervalls zurck.
+	 * 
+	 * @return Beginn in ms seit 1970 (UTC)
+	 */
+	public long getStart()
+	{
+		return start;
+	}
+
+	/**
+	 * Gibt die Phase zurck.
+	 * 
+	 * @return Phase
+	 */
+	public STAGE getStage()
+	{
+		return stage;
+	}
+
+	/**
+	 * Legt die Phase fest.
+	 * 
+	 * @param stage Phase
+	 */
+	public void setStage(STAGE stage)
+	{
+		this.stage = stage;
+	}
+
+	/**
+	 * Gibt die Anzahl der erfolgreichen Transaktionen zurck.
+	 * 
+	 * @return Anzahl
+	 */
+	public long getCommits()
+	{
+		return commits;
+	}
+
+	/**
+	 * Gibt die Anzahl der fehlgeschlagenen Transaktionen zurck.
+	 * 
+	 * @return Anzahl
+	 */
+	public long getFailures()
+	{
+		return failures;
+	}
+
+	/**
+	 * Gibt die Anzahl der Wiederholungen nach Serialisierungsfehlern zurck.
+	 * 
+	 * @return Anzahl
+	 */
+	public long getRetries()
+	{
+		return retries;
+	}
+
+	/**
+	 * Gibt die Summe der Zeiten zurck, in denen die Transaktionen eine
+	 * Datenbankverbindung belegt haben. Anders als die Dauer enthlt sie nicht
+	 * das Warten auf den beabsichtigten Startzeitpunkt bzw. auf eine freie
+	 * Verbindung.
+	 * 
+	 * @return Belegungszeit in ns
+	 */
+	public long getBusy()
+	{
+		return busy;
+	}
+
+	/**
+	 * Gibt das Histogramm der Dauern der erfolgreichen Transaktionen in ns zurck.
+	 * 
+	 * @return Histogramm
+	 */
+	public Histogram getLatencies()
+	{
+		return latencies;
+	}
+
+	/**
+	 * Erfasst eine erfolgreiche Transaktion.
+	 * 
+	 * @param duration Dauer in ns
+	 * @param busy Belegungszeit der Datenbankverbindung in ns
+	 * @param retries Anzahl der Wiederholungen
+	 */
+	public void recordCommit(long duration, long busy, int retries)
+	{
+		commits++;
+		this.busy += busy;
+		this.retries += retries;
+		latencies.record(duration);
+	}
+
+	/**
+	 * Erfasst eine fehlgeschlagene Transaktion.
+	 * 
+	 * @param busy Belegungszeit der Datenbankverbindung in ns
+	 * @param retries Anzahl der Wiederholungen
+	 */
+	public void recordFailure(long busy, int retries)
+	{
+		failures++;
+		this.busy += busy;
+		this.retries += retries;
+	}
+
+	/**
+	 * Fasst ein Intervall mit gleichem Beginn und gleicher Phase mit diesem zusammen.
+	 * 
+	 * @param other Intervall
+	 */
+	public void add(TimeSeriesBucket other)
+	{
+		commits += other.commits;
+		failures += other.failures;
+		retries += other.retries;
+		busy += other.busy;
+		latencies.add(other.latencies);
+	}
+
+	/**
+	 * Erzeugt eine unabhngige Kopie des Intervalls.
+	 * 
+	 * @return Kopie
+	 */
+	public TimeSeriesBucket copy()
+	{
+		TimeSeriesBucket bucket = new TimeSeriesBucket(start, stage, latencies.getPrecision());
+		bucket.add(this);
+		return bucket;
+	}
+
+}
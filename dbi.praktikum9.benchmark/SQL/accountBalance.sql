@@ -0,0 +1,13 @@
+﻿-- Function: accountbalance(integer)
+
+-- DROP FUNCTION accountbalance(integer);
+
+CREATE OR REPLACE FUNCTION accountbalance(paccountid integer)
+  RETURNS integer AS
+$BODY$
+SELECT balance
+FROM accounts
+WHERE accid = pAccountID;
+$BODY$
+  LANGUAGE sql STABLE
+  COST 100;
@@ -0,0 +1,13 @@
+﻿-- Function: countdelta(integer)
+
+-- DROP FUNCTION countdelta(integer);
+
+CREATE OR REPLACE FUNCTION countdelta(pdelta integer)
+  RETURNS integer AS
+$BODY$
+SELECT CAST(COUNT(*) AS integer)
+FROM history
+WHERE delta = pDelta;
+$BODY$
+  LANGUAGE sql STABLE
+  COST 100;
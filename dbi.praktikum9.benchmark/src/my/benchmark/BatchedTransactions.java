@@ -0,0 +1,90 @@
+package my.benchmark;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Diese Klasse implementiert die Einzahlungstransaktion mit mglichst wenigen
+ * Roundtrips zum DBMS. Der aktualisierte Kontostand wird direkt ber
+ * UPDATE ... RETURNING gelesen, sodass die zustzliche Abfrage entfllt.
+ * Die Aktualisierung von Filiale und Geldautomat sowie der History-Eintrag
+ * werden anschlieend gemeinsam bertragen.
+ *
+ * Da ein JDBC-Batch ber ein Prepared Statement nur denselben SQL-Befehl
+ * wiederholen kann, sind die drei unterschiedlichen Befehle in einem einzigen
+ * parametrisierten Prepared Statement zusammengefasst. Der PostgreSQL-Treiber
+ * sendet alle Befehle darin in einem Roundtrip; sie werden wie die brigen
+ * Statements nur einmal vorbereitet und nicht bei jeder Ausfhrung erneut
+ * geparst.
+ */
+public class BatchedTransactions implements DepositMoneyTransaction {
+
+	private PreparedStatement updateAccountBalance;
+	private PreparedStatement updateRemaining;
+
+	private static final String SQL_UPDATE_ACCOUNT_BALANCE =
+			"UPDATE accounts SET balance = balance + ? " +
+			" WHERE accid = ? RETURNING balance";
+
+	private static final String SQL_UPDATE_REMAINING =
+			"UPDATE branches SET balance = balance + ? " +
+			" WHERE branchid = ?; " +
+			"UPDATE tellers SET balance = balance + ? " +
+			" WHERE tellerid = ?; " +
+			"INSERT INTO history " +
+			"(accid, tellerid, delta, branchid, accbalance, cmmnt) " +
+			"VALUES (?, ?, ?, ?, ?, ?)";
+
+	/**
+	 * Initialisiert die verwendeten Prepared Statements.
+	 */
+	@Override
+	public void initialize(StatementCache statements) throws SQLException {
+		updateAccountBalance = statements.prepare(SQL_UPDATE_ACCOUNT_BALANCE);
+		updateRemaining = statements.prepare(SQL_UPDATE_REMAINING);
+	}
+
+	/**
+	 * Die Prepared Statements werden vom Statement-Cache geschlossen.
+	 */
+	@Override
+	public void close() throws SQLException {
+	}
+
+	/**
+	 * Fhrt einen Einzahlungsvorgang mit zwei Roundtrips aus: Das Konto wird
+	 * aktualisiert und der neue Kontostand zurckgegeben, danach werden die
+	 * brigen Befehle gemeinsam ausgefhrt.
+	 */
+	@Override
+	public int depositMoney(int accountID, int tellerID, int branchID, int delta)
+			throws SQLException {
+
+		int newBalance;
+		updateAccountBalance.setInt(1, delta);
+		updateAccountBalance.setInt(2, accountID);
+		ResultSet result = updateAccountBalance.executeQuery();
+		try {
+			// Es gibt nur ein Ergebnis, da accid Primrschlssel ist
+			result.next();
+			newBalance = result.getInt(1);
+		} finally {
+			result.close();
+		}
+
+		updateRemaining.setInt(1, delta);
+		updateRemaining.setInt(2, branchID);
+		updateRemaining.setInt(3, delta);
+		updateRemaining.setInt(4, tellerID);
+		updateRemaining.setInt(5, accountID);
+		updateRemaining.setInt(6, tellerID);
+		updateRemaining.setInt(7, delta);
+		updateRemaining.setInt(8, branchID);
+		updateRemaining.setInt(9, newBalance);
+		updateRemaining.setString(10, FixedData.HISTORY_COMMENT);
+		updateRemaining.execute();
+
+		return newBalance;
+	}
+}
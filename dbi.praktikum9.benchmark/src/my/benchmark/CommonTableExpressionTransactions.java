@@ -0,0 +1,78 @@
+package my.benchmark;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Diese Klasse implementiert die Einzahlungstransaktion als einen einzigen
+ * SQL-Befehl. ber datenverndernde Common Table Expressions (WITH ...)
+ * werden Filiale, Geldautomat und Konto aktualisiert und der History-Eintrag
+ * mit dem ber RETURNING gelieferten Kontostand eingefgt. Die Transaktion
+ * bentigt damit wie eine Stored Procedure nur einen Roundtrip, ohne dass
+ * vorher eine Funktion im DBMS angelegt werden muss.
+ *
+ * PostgreSQL fhrt alle Teilausdrcke auf demselben Snapshot aus; die
+ * Reihenfolge der Aktualisierungen ist dabei nicht festgelegt.
+ */
+public class CommonTableExpressionTransactions implements DepositMoneyTransaction {
+
+	private PreparedStatement depositMoney;
+
+	private static final String SQL_DEPOSIT_MONEY =
+			"WITH branch AS (" +
+			" UPDATE branches SET balance = balance + ? WHERE branchid = ?" +
+			"), teller AS (" +
+			" UPDATE tellers SET balance = balance + ? WHERE tellerid = ?" +
+			"), account AS (" +
+			" UPDATE accounts SET balance = balance + ? WHERE accid = ?" +
+			" RETURNING accid, balance" +
+			"), entry AS (" +
+			" INSERT INTO history " +
+			" (accid, tellerid, delta, branchid, accbalance, cmmnt) " +
+			" SELECT accid, ?, ?, ?, balance, ? FROM account" +
+			") SELECT balance FROM account";
+
+	/**
+	 * Initialisiert das Prepared Statement.
+	 */
+	@Override
+	public void initialize(StatementCache statements) throws SQLException {
+		depositMoney = statements.prepare(SQL_DEPOSIT_MONEY);
+	}
+
+	/**
+	 * Das Prepared Statement wird vom Statement-Cache geschlossen.
+	 */
+	@Override
+	public void close() throws SQLException {
+	}
+
+	/**
+	 * Fhrt einen Einzahlungsvorgang mit einem einzigen SQL-Befehl aus.
+	 */
+	@Override
+	public int depositMoney(int accountID, int tellerID, int branchID, int delta)
+			throws SQLException {
+
+		depositMoney.setInt(1, delta);
+		depositMoney.setInt(2, branchID);
+		depositMoney.setInt(3, delta);
+		depositMoney.setInt(4, tellerID);
+		depositMoney.setInt(5, delta);
+		depositMoney.setInt(6, accountID);
+		depositMoney.setInt(7, tellerID);
+		depositMoney.setInt(8, delta);
+		depositMoney.setInt(9, branchID);
+		depositMoney.setString(10, FixedData.HISTORY_COMMENT);
+
+		ResultSet result = depositMoney.executeQuery();
+		try {
+			// Es gibt nur ein Ergebnis, da accid Primrschlssel ist
+			result.next();
+			return result.getInt(1);
+		} finally {
+			result.close();
+		}
+	}
+}
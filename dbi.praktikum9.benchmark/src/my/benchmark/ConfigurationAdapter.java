@@ -37,6 +37,15 @@ public class ConfigurationAdapter extends dbi.benchmark.Configuration {
 		return Integer.parseInt(base.getUser("n"));
 	}
 	
+	/**
+	 * Gibt das Verzeichnis der SQL-Dateien fr die Stored Procedures zurck.
+	 * 
+	 * @return Verzeichnis (user.sql.directory) oder null.
+	 */
+	public String getSqlDirectory() {
+		return base.getUser("sql.directory");
+	}
+	
 	@Override
 	public int getInsertMethod() {
 		return 6;
@@ -0,0 +1,49 @@
+package my.benchmark;
+
+import java.util.Random;
+
+/**
+ * Diese Verteilung lenkt einen festen Anteil der Zugriffe auf einen
+ * kleinen Anteil der IDs (z.B. 80% der Zugriffe auf 20% der IDs).
+ * Innerhalb des heien und des kalten Bereichs sind die IDs gleichverteilt.
+ * Der heie Bereich umfasst die kleinsten IDs.
+ * 
+ */
+public class HotspotKeyDistribution implements KeyDistribution {
+
+	private int keyCount;
+	private int hotKeyCount;
+	private double hotTraffic;
+	
+	/**
+	 * Initialisiert die Hotspot-Verteilung.
+	 * 
+	 * @param keyCount Anzahl der IDs.
+	 * @param hotKeys Anteil der heien IDs, 0 bis 1.
+	 * @param hotTraffic Anteil der Zugriffe auf die heien IDs, 0 bis 1.
+	 */
+	public HotspotKeyDistribution(int keyCount, double hotKeys, 
+			double hotTraffic) {
+		if (hotKeys < 0.0 || hotKeys > 1.0 
+				|| hotTraffic < 0.0 || hotTraffic > 1.0)
+			throw new IllegalArgumentException(
+					"Ungltige Hotspot-Verteilung: keys=" + hotKeys 
+					+ ", traffic=" + hotTraffic);
+		
+		this.keyCount = keyCount;
+		this.hotKeyCount = Math.max(1, Math.min(keyCount, 
+				(int) Math.round(keyCount * hotKeys)));
+		this.hotTraffic = hotTraffic;
+	}
+	
+	@Override
+	public int next(Random random) {
+		boolean hot = random.nextDouble() < hotTraffic;
+		
+		// Gibt es keine kalten IDs, fallen alle Zugriffe auf den heien Bereich
+		if (hot || hotKeyCount == keyCount)
+			return random.nextInt(hotKeyCount) + 1;
+		
+		return hotKeyCount + random.nextInt(keyCount - hotKeyCount) + 1;
+	}
+}
@@ -1,5 +1,8 @@
 package my.benchmark;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+
 import dbi.benchmark.Benchmarker;
 
 public class InitPostgreSqlDB {
@@ -14,6 +17,8 @@ public class InitPostgreSqlDB {
 				
 				System.out.println("Initialisierung: " 
 						+ benchmarker.getElapsedTime() + "ms");
+				
+				installFunctions(config);
 			} finally {
 				if (benchmarker != null)
 					benchmarker.close();
@@ -22,4 +27,25 @@ public class InitPostgreSqlDB {
 			ex.printStackTrace();
 		}
 	}
+	
+	/**
+	 * Legt die Stored Procedures aus dem konfigurierten Verzeichnis
+	 * (user.sql.directory, Standard SQL) an, sodass
+	 * StoredProcedureTransactions ohne weitere Schritte verwendet
+	 * werden kann.
+	 * 
+	 * @param config Konfiguration der Datenbankverbindung.
+	 * @throws Exception Bei einem Fehler whrend der Installation.
+	 */
+	private static void installFunctions(ConfigurationAdapter config) throws Exception {
+		Connection connection = DriverManager.getConnection(config.getJdbcUrl(),
+				config.getJdbcUser(), config.getJdbcPassword());
+		try {
+			int count = new SqlFunctionInstaller(
+					SqlFunctionInstaller.getDirectory(config.getSqlDirectory())).install(connection);
+			System.out.println("Stored Procedures: " + count + " Dateien installiert");
+		} finally {
+			connection.close();
+		}
+	}
 }
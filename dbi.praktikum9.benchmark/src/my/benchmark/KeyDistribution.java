@@ -0,0 +1,19 @@
+package my.benchmark;
+
+import java.util.Random;
+
+/**
+ * Allgemeine Schnittstelle fr die Verteilung, nach der die IDs von
+ * Accounts, Tellers und Branches in den Lasttransaktionen gezogen werden.
+ * 
+ */
+public interface KeyDistribution {
+	/**
+	 * Zieht die nchste ID. Die Laufzeit ist unabhngig von der Anzahl
+	 * der IDs konstant.
+	 * 
+	 * @param random Zufallszahlengenerator des aufrufenden Workers.
+	 * @return ID im Bereich 1 bis Anzahl der IDs.
+	 */
+	int next(Random random);
+}
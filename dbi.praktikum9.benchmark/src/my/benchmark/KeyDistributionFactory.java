@@ -0,0 +1,74 @@
+package my.benchmark;
+
+import de.whs.dbi.util.Configuration;
+
+/**
+ * Diese Klasse ist eine Factory, die fr einen ID-Typ (account, teller,
+ * branch) die konfigurierte KeyDistribution erzeugt. Die Verteilung wird
+ * ber die benutzerdefinierten Parameter in Benchmark.xml festgelegt:
+ * 
+ * - user.key.TYP.distribution: uniform (Standard), zipfian,
+ *   scrambled-zipfian oder hotspot
+ * - user.key.TYP.theta: Schiefe der Zipf-Verteilungen (Standard 0.99)
+ * - user.key.TYP.hotspot.keys: Anteil der heien IDs (Standard 0.2)
+ * - user.key.TYP.hotspot.traffic: Anteil der Zugriffe auf die heien IDs
+ *   (Standard 0.8)
+ * 
+ */
+public final class KeyDistributionFactory {
+	
+	private static final String DEFAULT_THETA = "0.99";
+	private static final String DEFAULT_HOTSPOT_KEYS = "0.2";
+	private static final String DEFAULT_HOTSPOT_TRAFFIC = "0.8";
+	
+	/**
+	 * Erstellt die KeyDistribution fr einen ID-Typ.
+	 * 
+	 * @param config Konfigurationsobjekt.
+	 * @param keyType ID-Typ, z.B. "account".
+	 * @param keyCount Anzahl der IDs dieses Typs.
+	 * @return Neue Instanz einer KeyDistribution.
+	 * @throws IllegalArgumentException Bei einer unbekannten Verteilung.
+	 */
+	public static KeyDistribution create(Configuration config, String keyType,
+			int keyCount) {
+		String prefix = "key." + keyType + ".";
+		String distribution = getUser(config, prefix + "distribution", "uniform");
+		
+		if (distribution.equals("uniform"))
+			return new UniformKeyDistribution(keyCount);
+		
+		if (distribution.equals("zipfian"))
+			return new ZipfianKeyDistribution(keyCount, Double.parseDouble(
+					getUser(config, prefix + "theta", DEFAULT_THETA)));
+		
+		if (distribution.equals("scrambled-zipfian"))
+			return new ScrambledZipfianKeyDistribution(keyCount, 
+					Double.parseDouble(
+					getUser(config, prefix + "theta", DEFAULT_THETA)));
+		
+		if (distribution.equals("hotspot"))
+			return new HotspotKeyDistribution(keyCount, 
+					Double.parseDouble(getUser(config, 
+							prefix + "hotspot.keys", DEFAULT_HOTSPOT_KEYS)),
+					Double.parseDouble(getUser(config, 
+							prefix + "hotspot.traffic", DEFAULT_HOTSPOT_TRAFFIC)));
+		
+		throw new IllegalArgumentException("Unbekannte Schlsselverteilung fr " 
+				+ keyType + ": " + distribution);
+	}
+	
+	/**
+	 * Liest einen benutzerdefinierten Parameter mit Standardwert.
+	 * 
+	 * @param config Konfigurationsobjekt.
+	 * @param key Parameterschlssel ohne "user.".
+	 * @param defaultValue Standardwert.
+	 * @return Parameterwert.
+	 */
+	private static String getUser(Configuration config, String key, 
+			String defaultValue) {
+		String value = config.getUser(key);
+		return value != null ? value.trim() : defaultValue;
+	}
+}
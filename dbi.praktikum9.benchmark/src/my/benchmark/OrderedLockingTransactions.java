@@ -0,0 +1,101 @@
+package my.benchmark;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Diese Klasse implementiert die Einzahlungstransaktion pessimistisch fr das
+ * Isolationslevel READ COMMITTED (user.database.isolation = read-committed).
+ * Die Zeilensperren werden durch die Reihenfolge der UPDATE-Befehle in einer
+ * global festen Reihenfolge Filiale, Geldautomat, Konto angefordert. Dadurch
+ * warten konkurrierende Einzahlungen auf dieselbe Filiale aufeinander, statt
+ * wie unter SERIALIZABLE mit einem Serialisierungsfehler (40001) abzubrechen,
+ * und es knnen keine Deadlocks entstehen.
+ *
+ * Der neue Kontostand wird ber UPDATE ... RETURNING gelesen, solange die
+ * Sperre auf dem Konto gehalten wird, sodass er auch unter READ COMMITTED zum
+ * History-Eintrag passt.
+ */
+public class OrderedLockingTransactions implements DepositMoneyTransaction {
+
+	private PreparedStatement updateBranchBalance;
+	private PreparedStatement updateTellerBalance;
+	private PreparedStatement updateAccountBalance;
+	private PreparedStatement insertHistoryEntry;
+
+	private static final String SQL_UPDATE_BRANCH_BALANCE =
+			"UPDATE branches SET balance = balance + ? " +
+			" WHERE branchid = ?";
+
+	private static final String SQL_UPDATE_TELLER_BALANCE =
+			"UPDATE tellers SET balance = balance + ? " +
+			" WHERE tellerid = ?";
+
+	private static final String SQL_UPDATE_ACCOUNT_BALANCE =
+			"UPDATE accounts SET balance = balance + ? " +
+			" WHERE accid = ? RETURNING balance";
+
+	private static final String SQL_INSERT_HISTORY_ENTRY =
+			"INSERT INTO history " +
+			"(accid, tellerid, delta, branchid, accbalance, cmmnt) " +
+			"VALUES (?, ?, ?, ?, ?, ?)";
+
+	/**
+	 * Initialisiert die verwendeten Prepared Statements.
+	 */
+	@Override
+	public void initialize(StatementCache statements) throws SQLException {
+		updateBranchBalance = statements.prepare(SQL_UPDATE_BRANCH_BALANCE);
+		updateTellerBalance = statements.prepare(SQL_UPDATE_TELLER_BALANCE);
+		updateAccountBalance = statements.prepare(SQL_UPDATE_ACCOUNT_BALANCE);
+		insertHistoryEntry = statements.prepare(SQL_INSERT_HISTORY_ENTRY);
+	}
+
+	/**
+	 * Die Prepared Statements werden vom Statement-Cache geschlossen.
+	 */
+	@Override
+	public void close() throws SQLException {
+	}
+
+	/**
+	 * Fhrt einen Einzahlungsvorgang mit Sperren in der Reihenfolge
+	 * Filiale, Geldautomat, Konto aus.
+	 */
+	@Override
+	public int depositMoney(int accountID, int tellerID, int branchID, int delta)
+			throws SQLException {
+
+		// Reihenfolge der Sperren nicht ndern, sonst drohen Deadlocks
+		updateBranchBalance.setInt(1, delta);
+		updateBranchBalance.setInt(2, branchID);
+		updateBranchBalance.executeUpdate();
+
+		updateTellerBalance.setInt(1, delta);
+		updateTellerBalance.setInt(2, tellerID);
+		updateTellerBalance.executeUpdate();
+
+		int newBalance;
+		updateAccountBalance.setInt(1, delta);
+		updateAccountBalance.setInt(2, accountID);
+		ResultSet result = updateAccountBalance.executeQuery();
+		try {
+			// Es gibt nur ein Ergebnis, da accid Primrschlssel ist
+			result.next();
+			newBalance = result.getInt(1);
+		} finally {
+			result.close();
+		}
+
+		insertHistoryEntry.setInt(1, accountID);
+		insertHistoryEntry.setInt(2, tellerID);
+		insertHistoryEntry.setInt(3, delta);
+		insertHistoryEntry.setInt(4, branchID);
+		insertHistoryEntry.setInt(5, newBalance);
+		insertHistoryEntry.setString(6, FixedData.HISTORY_COMMENT);
+		insertHistoryEntry.executeUpdate();
+
+		return newBalance;
+	}
+}
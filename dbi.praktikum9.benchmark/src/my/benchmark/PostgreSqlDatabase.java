@@ -1,13 +1,16 @@
 package my.benchmark;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Logger;
 import java.sql.Statement;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.util.Random;
 
 import dbi.benchmark.insert.FixedData;
 import de.whs.dbi.loaddriver.Database;
+import de.whs.dbi.loaddriver.ParameterGenerator;
 import de.whs.dbi.util.Configuration;
 
 /**
@@ -18,14 +21,17 @@ import de.whs.dbi.util.Configuration;
  *
  */
 public class PostgreSqlDatabase extends Database {
-	private Random random;
 	private int scaleN;
+	private KeyDistribution branchKeys;
+	private KeyDistribution tellerKeys;
+	private KeyDistribution accountKeys;
 	private AccountBalanceTransaction accountBalanceTX;
 	private DepositMoneyTransaction depositMoneyTX;
 	private CountDeltaTransaction countDeltaTX;
+	private TransactionRegistry registry;
 
 	/**
-	 * Initialisiert die Zufallszahlengenerierung fr die Lasttransaktionen
+	 * Initialisiert die Verteilungen der IDs fr die Lasttransaktionen
 	 * und ldt die konkreten Implementierungen der Transaktionen.
 	 * 
 	 * @param config Konfigurationsobjekt.
@@ -34,8 +40,8 @@ public class PostgreSqlDatabase extends Database {
 	public PostgreSqlDatabase(Configuration config) throws Exception {
 		super(config);
 		
-		random = new Random();
 		scaleN = Integer.parseInt(config.getUser("n"));
+		loadKeyDistributions(config);
 		loadTransactions(config);
 	}
 
@@ -52,10 +58,35 @@ public class PostgreSqlDatabase extends Database {
 		connection = DriverManager.getConnection(url, username, password);
 		
 		// Default bei PostgreSQL ist Read Committed, fr unsere TX wird 
-		// SERIALIZABLE gefordert
-		connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+		// SERIALIZABLE gefordert, sofern nicht anders konfiguriert
+		connection.setTransactionIsolation(getIsolationLevel());
 		
 		clearHistory();
+		
+		// Optional die Stored Procedures aus dem Verzeichnis SQL anlegen
+		if (Boolean.parseBoolean(config.getUser("sql.install")))
+			installFunctions();
+	}
+	
+	/**
+	 * Gibt das konfigurierte Isolationslevel (user.database.isolation) zurck.
+	 * Erlaubt sind serializable (Standard), repeatable-read, read-committed
+	 * und read-uncommitted. READ COMMITTED ist z. B. fr die pessimistische
+	 * Variante OrderedLockingTransactions gedacht.
+	 * 
+	 * @return Isolationslevel als Konstante aus Connection.
+	 */
+	private int getIsolationLevel() {
+		String isolation = config.getUser("database.isolation");
+		if (isolation == null || isolation.trim().equals("serializable"))
+			return Connection.TRANSACTION_SERIALIZABLE;
+		if (isolation.trim().equals("repeatable-read"))
+			return Connection.TRANSACTION_REPEATABLE_READ;
+		if (isolation.trim().equals("read-committed"))
+			return Connection.TRANSACTION_READ_COMMITTED;
+		if (isolation.trim().equals("read-uncommitted"))
+			return Connection.TRANSACTION_READ_UNCOMMITTED;
+		throw new IllegalArgumentException("Unbekanntes Isolationslevel: " + isolation);
 	}
 	
 	/**
@@ -64,16 +95,23 @@ public class PostgreSqlDatabase extends Database {
 	 */
 	@Override
 	public void closeConnection() throws SQLException {
-		if (accountBalanceTX != null)
-			accountBalanceTX.close();
-		if (depositMoneyTX != null)
-			depositMoneyTX.close();
-		if (countDeltaTX != null)
-			countDeltaTX.close();
+		if (registry != null)
+			registry.close();
 		
 		super.closeConnection();
 	}
 
+	/**
+	 * Protokolliert die Statistik des Statement-Caches im Log des
+	 * LoadDrivers, um zu prfen, dass die Lasttransaktionen ihre Statements
+	 * nicht erneut vorbereiten.
+	 */
+	@Override
+	public void logStatistics(Logger log) throws SQLException {
+		if (registry != null)
+			registry.getStatements().log(log);
+	}
+
 	/**
 	 * Leert die History-Tabelle.
 	 * 
@@ -89,6 +127,23 @@ public class PostgreSqlDatabase extends Database {
 		}
 	}
 
+	/**
+	 * Legt die Stored Procedures aus dem konfigurierten Verzeichnis
+	 * (user.sql.directory, Standard SQL) an bzw. ersetzt sie. Das geschieht
+	 * nur fr die erste Verbindung eines LoadDrivers zu einer Datenbank.
+	 * 
+	 * @throws SQLException Bei einem Zugriffsfehler auf die Datenbank.
+	 */
+	private void installFunctions() throws SQLException {
+		File directory = SqlFunctionInstaller.getDirectory(config.getUser("sql.directory"));
+		try {
+			new SqlFunctionInstaller(directory).installOnce(connection, config.getDatabaseJDBC());
+		}
+		catch (IOException e) {
+			throw new SQLException("SQL-Dateien konnten nicht gelesen werden", e);
+		}
+	}
+
 	/**
 	 * Diese Lasttransaktion fragt fr ein zufllig gewhltes
 	 * Konto den Kontostand ab.
@@ -137,14 +192,31 @@ public class PostgreSqlDatabase extends Database {
 		int count = countDeltaTX.countDeltaEntries(delta);
 	}
 	
+	/**
+	 * Erzeugt die konfigurierten Verteilungen fr die IDs von Branches,
+	 * Tellers und Accounts.
+	 * 
+	 * @param config Konfigurationsobjekt.
+	 */
+	private void loadKeyDistributions(Configuration config) {
+		branchKeys = KeyDistributionFactory.create(config, "branch", scaleN);
+		tellerKeys = KeyDistributionFactory.create(config, "teller", 
+				scaleN * FixedData.RATIO_TELLERS_TO_BRANCHES);
+		accountKeys = KeyDistributionFactory.create(config, "account", 
+				scaleN * FixedData.RATIO_ACCOUNTS_TO_BRANCHES);
+	}
+	
 	/**
 	 * Ldt die konkreten Implementierungen der Lasttransaktionen auf Basis
-	 * eines Konfigurationsobjektes.
+	 * eines Konfigurationsobjektes. Ist dieselbe Klasse fr mehrere
+	 * Lasttransaktionen konfiguriert, wird nur ein Objekt erzeugt.
 	 * 
 	 * @param config Konfigurationsobjekt.
 	 * @throws Exception Bei einem Konfigurationsfehler.
 	 */
 	private void loadTransactions(Configuration config) throws Exception {
+		registry = new TransactionRegistry(connection);
+		
 		accountBalanceTX = (AccountBalanceTransaction) 
 				loadTransaction("tx.account-balance");
 		depositMoneyTX = (DepositMoneyTransaction) 
@@ -154,53 +226,45 @@ public class PostgreSqlDatabase extends Database {
 	}
 	
 	/**
-	 * Ldt eine konkrete Implementierung einer Lasttransaktion und
-	 * initialisiert diese.
+	 * Ldt eine konkrete Implementierung einer Lasttransaktion ber die
+	 * Registry der Datenbankverbindung.
 	 * 
 	 * @param paramName Klassenname der konkreten Implementierung.
 	 * @return Lasttransaktion.
 	 * @throws Exception Falls die Klasse nicht geladen werden konnte.
 	 */
 	private Transaction loadTransaction(String paramName) throws Exception {
-		// Klasse ber Reflection laden
-		String className = config.getUser(paramName);
-		Class<?> class_ = Class.forName(className);
-		
-		// Objekt der Klasse instantieren und initialisieren
-		Transaction transaction = (Transaction)class_.newInstance();
-		transaction.initialize(connection);
-		
-		return transaction;
+		return registry.get(config.getUser(paramName));
 	}
 	
 	/**
-	 * Generiert eine zufllige ID fr Branches.
+	 * Generiert eine zufllige ID fr Branches gem der konfigurierten
+	 * Verteilung.
 	 * 
 	 * @return Zufllige ID.
 	 */
 	private int generateBranchID() {
-		int branchCount = scaleN;
-		return random.nextInt(branchCount) + 1;
+		return branchKeys.next(ParameterGenerator.getRandom());
 	}
 	
 	/**
-	 * Generiert eine zufllige ID fr Tellers.
+	 * Generiert eine zufllige ID fr Tellers gem der konfigurierten
+	 * Verteilung.
 	 * 
 	 * @return Zufllige ID.
 	 */
 	private int generateTellerID() {
-		int tellerCount = scaleN * FixedData.RATIO_TELLERS_TO_BRANCHES;
-		return random.nextInt(tellerCount) + 1;
+		return tellerKeys.next(ParameterGenerator.getRandom());
 	}
 	
 	/**
-	 * Generiert eine zufllige ID fr Accounts.
+	 * Generiert eine zufllige ID fr Accounts gem der konfigurierten
+	 * Verteilung.
 	 * 
 	 * @return Zufllige ID.
 	 */
 	private int generateAccountID() {
-		int accountCount = scaleN * FixedData.RATIO_ACCOUNTS_TO_BRANCHES;
-		return random.nextInt(accountCount) + 1;
+		return accountKeys.next(ParameterGenerator.getRandom());
 	}
 	
 	/**
@@ -210,6 +274,6 @@ public class PostgreSqlDatabase extends Database {
 	 */
 	private int generateDelta() {
 		final int MAX_DELTA = 10000;
-		return random.nextInt(MAX_DELTA) + 1;
+		return ParameterGenerator.getRandom().nextInt(MAX_DELTA) + 1;
 	}
 }
@@ -1,6 +1,5 @@
 package my.benchmark;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -13,7 +12,7 @@ public class PreparedStatementTransactions implements
 		AccountBalanceTransaction, DepositMoneyTransaction,
 		CountDeltaTransaction {
 	
-	private Connection connection;
+	private StatementCache statements;
 	
 	private PreparedStatement selectAccountBalance;
 	private PreparedStatement updateAccountBalance;
@@ -50,8 +49,8 @@ public class PreparedStatementTransactions implements
 	 * Initialisert die verwendeten Prepared Statements.
 	 */
 	@Override
-	public void initialize(Connection connection) throws SQLException {
-		this.connection = connection;
+	public void initialize(StatementCache statements) throws SQLException {
+		this.statements = statements;
 		
 		selectAccountBalance = prepare(SQL_SELECT_ACCOUNT_BALANCE);
 		updateAccountBalance = prepare(SQL_UPDATE_ACCOUNT_BALANCE);
@@ -62,22 +61,10 @@ public class PreparedStatementTransactions implements
 	}
 
 	/**
-	 * Schliet alle verwendeten Prepared Statements.
+	 * Die Prepared Statements werden vom Statement-Cache geschlossen.
 	 */
 	@Override
 	public void close() throws SQLException {
-		if (countHistoryEntries != null)
-			countHistoryEntries.close();
-		if (insertHistoryEntry != null)
-			insertHistoryEntry.close();
-		if (updateBranchBalance != null)
-			updateBranchBalance.close();
-		if (updateTellerBalance != null)
-			updateTellerBalance.close();
-		if (updateAccountBalance != null)
-			updateAccountBalance.close();
-		if (selectAccountBalance != null)
-			selectAccountBalance.close();
 	}
 	
 	/**
@@ -155,13 +142,13 @@ public class PreparedStatementTransactions implements
 	}
 	
 	/**
-	 * Initialisiert ein Prepared Statement.
+	 * Fordert ein Prepared Statement aus dem Statement-Cache an.
 	 * 
 	 * @param sql SQL-Befehl.
 	 * @return Prepared Statement.
 	 * @throws SQLException Bei einem Zugriffsfehler auf die Datenbank.
 	 */
 	private PreparedStatement prepare(String sql) throws SQLException {
-		return connection.prepareStatement(sql);
+		return statements.prepare(sql);
 	}	
 }
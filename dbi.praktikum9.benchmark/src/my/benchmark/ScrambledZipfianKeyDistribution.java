@@ -0,0 +1,50 @@
+package my.benchmark;
+
+import java.util.Random;
+
+/**
+ * Diese Verteilung zieht die IDs nach dem Zipf-Gesetz, verteilt die
+ * hufigen IDs aber ber einen Hash auf den gesamten Schlsselraum.
+ * Damit liegen die heien Tupel nicht alle auf denselben Datenbankseiten.
+ * 
+ */
+public class ScrambledZipfianKeyDistribution extends ZipfianKeyDistribution {
+	
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private int keyCount;
+	
+	/**
+	 * Initialisiert die gestreute Zipf-Verteilung.
+	 * 
+	 * @param keyCount Anzahl der IDs.
+	 * @param theta Schiefe der Verteilung, 0 < theta < 1.
+	 */
+	public ScrambledZipfianKeyDistribution(int keyCount, double theta) {
+		super(keyCount, theta);
+		this.keyCount = keyCount;
+	}
+	
+	@Override
+	public int next(Random random) {
+		long hash = fnv1a(rank(random));
+		return (int) ((hash & Long.MAX_VALUE) % keyCount) + 1;
+	}
+	
+	/**
+	 * Berechnet den FNV-1a-Hash der acht Bytes eines Rangs.
+	 * 
+	 * @param value Rang.
+	 * @return Hashwert.
+	 */
+	private static long fnv1a(long value) {
+		long hash = FNV_OFFSET_BASIS;
+		for (int i = 0; i < 8; i++) {
+			hash ^= value & 0xff;
+			hash *= FNV_PRIME;
+			value >>>= 8;
+		}
+		return hash;
+	}
+}
@@ -0,0 +1,141 @@
+package my.benchmark;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Diese Klasse legt die Stored Procedures aus den SQL-Dateien eines
+ * Verzeichnisses (standardmig SQL) im DBMS an bzw. ersetzt sie. Jede Datei
+ * wird als Ganzes ausgefhrt und muss daher CREATE OR REPLACE verwenden.
+ *
+ * Die Installation luft in einer eigenen Transaktion unter einer Advisory
+ * Lock, damit mehrere Load Driver gleichzeitig installieren knnen, ohne
+ * sich bei der Aktualisierung des Katalogs zu behindern.
+ */
+public class SqlFunctionInstaller {
+
+	/**
+	 * Standardverzeichnis der SQL-Dateien.
+	 */
+	public static final String DEFAULT_DIRECTORY = "SQL";
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+	/**
+	 * Schlssel der Advisory Lock, unter der installiert wird.
+	 */
+	private static final long LOCK_KEY = 0x44424946756E6373L;
+
+	/**
+	 * Bereits installierte Kombinationen aus JDBC-URL und Verzeichnis
+	 */
+	private static final Set<String> installed = new HashSet<String>();
+
+	private final File directory;
+
+	/**
+	 * Initialisiert den Installer mit einem Verzeichnis.
+	 *
+	 * @param directory Verzeichnis mit den SQL-Dateien.
+	 */
+	public SqlFunctionInstaller(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Gibt das Verzeichnis der SQL-Dateien zurck.
+	 *
+	 * @param configured Konfiguriertes Verzeichnis (user.sql.directory)
+	 *        oder null.
+	 * @return Konfiguriertes Verzeichnis oder das Standardverzeichnis.
+	 */
+	public static File getDirectory(String configured) {
+		if (configured == null || configured.trim().isEmpty())
+			return new File(DEFAULT_DIRECTORY);
+		return new File(configured.trim());
+	}
+
+	/**
+	 * Fhrt die SQL-Dateien nur aus, falls sie in dieser JVM noch nicht fr
+	 * dieselbe Datenbank installiert wurden. So installiert ein LoadDriver
+	 * die Stored Procedures einmal und nicht fr jeden Worker erneut.
+	 *
+	 * @param connection Datenbankverbindung.
+	 * @param url JDBC-URL der Datenbank.
+	 * @throws SQLException Bei einem Zugriffsfehler auf die Datenbank.
+	 * @throws IOException Falls eine Datei nicht gelesen werden konnte.
+	 */
+	public void installOnce(Connection connection, String url) throws SQLException, IOException {
+		String key = url + "|" + directory.getAbsolutePath();
+		synchronized (installed) {
+			if (installed.contains(key))
+				return;
+			install(connection);
+			installed.add(key);
+		}
+	}
+
+	/**
+	 * Fhrt alle SQL-Dateien des Verzeichnisses in alphabetischer
+	 * Reihenfolge aus. Der AutoCommit-Modus der Verbindung bleibt erhalten.
+	 *
+	 * @param connection Datenbankverbindung.
+	 * @return Anzahl der ausgefhrten Dateien.
+	 * @throws SQLException Bei einem Zugriffsfehler auf die Datenbank.
+	 * @throws IOException Falls eine Datei nicht gelesen werden konnte.
+	 */
+	public int install(Connection connection) throws SQLException, IOException {
+		File[] files = directory.listFiles(new FilenameFilter() {
+			@Override
+			public boolean accept(File dir, String name) {
+				return name.toLowerCase().endsWith(".sql");
+			}
+		});
+		if (files == null)
+			throw new IOException("Verzeichnis nicht gefunden: " + directory);
+		Arrays.sort(files);
+
+		boolean autoCommit = connection.getAutoCommit();
+		connection.setAutoCommit(false);
+		Statement statement = connection.createStatement();
+		try {
+			statement.execute("SELECT pg_advisory_xact_lock(" + LOCK_KEY + ")");
+			for (File file : files)
+				statement.execute(read(file));
+			connection.commit();
+		} catch (SQLException e) {
+			connection.rollback();
+			throw e;
+		} finally {
+			statement.close();
+			connection.setAutoCommit(autoCommit);
+		}
+		return files.length;
+	}
+
+	/**
+	 * Liest eine SQL-Datei in UTF-8 ein und entfernt eine vorangestellte
+	 * Byte Order Mark, wie sie z. B. pgAdmin schreibt.
+	 *
+	 * @param file SQL-Datei.
+	 * @return Inhalt der Datei.
+	 * @throws IOException Falls die Datei nicht gelesen werden konnte.
+	 */
+	private static String read(File file) throws IOException {
+		String sql = new String(Files.readAllBytes(file.toPath()), UTF8);
+		if (!sql.isEmpty() && sql.charAt(0) == BYTE_ORDER_MARK)
+			sql = sql.substring(1);
+		return sql;
+	}
+}
@@ -0,0 +1,252 @@
+package my.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.postgresql.PGStatement;
+
+/**
+ * Dieser Cache verwaltet die Prepared Statements einer Datenbankverbindung.
+ * Jeder SQL-Befehl wird nur einmal vorbereitet, auch wenn mehrere
+ * Lasttransaktionen denselben Befehl verwenden. Der Cache zhlt, wie oft ein
+ * Befehl angefordert, tatschlich vorbereitet und ausgefhrt wurde. ber
+ * {@link #log(Logger)} wird auerdem protokolliert, wie viele Ausfhrungen ein
+ * serverseitig vorbereitetes Statement wiederverwendet haben und wie viele
+ * erneut geparst wurden.
+ *
+ * Der PostgreSQL-Treiber parst einen Befehl bei den ersten Ausfhrungen
+ * jedes Mal neu und bereitet ihn erst bei der Ausfhrung mit der Nummer
+ * prepareThreshold (Standard 5) serverseitig vor. Ob das geschehen ist, wird
+ * in der Sicht pg_prepared_statements der Verbindung geprft.
+ */
+public class StatementCache {
+
+	/**
+	 * Eintrag des Caches fr einen SQL-Befehl. Der Eintrag zhlt als
+	 * InvocationHandler des herausgegebenen Statements die Ausfhrungen.
+	 */
+	private static class Entry implements InvocationHandler {
+		PreparedStatement target;
+		PreparedStatement statement;
+		int requests;
+		int prepares;
+		long executions;
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getName().startsWith("execute"))
+				executions++;
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+
+	private final Connection connection;
+	private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>();
+
+	/**
+	 * Initialisiert einen leeren Cache fr eine Datenbankverbindung.
+	 *
+	 * @param connection Datenbankverbindung.
+	 */
+	public StatementCache(Connection connection) {
+		this.connection = connection;
+	}
+
+	/**
+	 * Gibt die Datenbankverbindung des Caches zurck, z. B. fr einfache
+	 * Statements, die nicht im Cache verwaltet werden.
+	 *
+	 * @return Datenbankverbindung.
+	 */
+	public Connection getConnection() {
+		return connection;
+	}
+
+	/**
+	 * Gibt das Prepared Statement zu einem SQL-Befehl zurck und bereitet es
+	 * nur vor, falls es noch nicht im Cache liegt. Die Statements gehren dem
+	 * Cache und drfen von den Lasttransaktionen nicht geschlossen werden.
+	 * Jede Ausfhrung ber execute, executeQuery usw. wird gezhlt.
+	 *
+	 * @param sql SQL-Befehl.
+	 * @return Prepared Statement.
+	 * @throws SQLException Bei einem Zugriffsfehler auf die Datenbank.
+	 */
+	public PreparedStatement prepare(String sql) throws SQLException {
+		Entry entry = entries.get(sql);
+		if (entry == null) {
+			entry = new Entry();
+			entries.put(sql, entry);
+		}
+		entry.requests++;
+		if (entry.statement == null || entry.statement.isClosed()) {
+			entry.target = connection.prepareStatement(sql);
+			entry.statement = (PreparedStatement) Proxy.newProxyInstance(StatementCache.class.getClassLoader(),
+					new Class<?>[] { PreparedStatement.class }, entry);
+			entry.prepares++;
+		}
+		return entry.statement;
+	}
+
+	/**
+	 * Gibt zurck, wie oft ein SQL-Befehl vorbereitet wurde.
+	 *
+	 * @param sql SQL-Befehl.
+	 * @return Anzahl der Vorbereitungen.
+	 */
+	public int getPrepareCount(String sql) {
+		Entry entry = entries.get(sql);
+		return entry == null ? 0 : entry.prepares;
+	}
+
+	/**
+	 * Gibt zurck, wie oft ein SQL-Befehl ausgefhrt wurde.
+	 *
+	 * @param sql SQL-Befehl.
+	 * @return Anzahl der Ausfhrungen.
+	 */
+	public long getExecutionCount(String sql) {
+		Entry entry = entries.get(sql);
+		return entry == null ? 0 : entry.executions;
+	}
+
+	/**
+	 * Protokolliert eine Zusammenfassung aller Befehle (INFO), die Statistik
+	 * je Befehl (FINE) sowie mehrfach vorbereitete und trotz hufiger
+	 * Ausfhrung nie serverseitig vorbereitete Befehle (WARNING).
+	 *
+	 * Wiederverwendet sind die Ausfhrungen eines in pg_prepared_statements
+	 * vorhandenen Befehls nach den ersten prepareThreshold Ausfhrungen je
+	 * Vorbereitung; alle brigen Ausfhrungen wurden neu geparst.
+	 *
+	 * @param log Log, z. B. das des LoadDrivers.
+	 * @throws SQLException Bei einem Zugriffsfehler auf die Datenbank.
+	 */
+	public void log(Logger log) throws SQLException {
+		Set<String> serverStatements = getServerStatements();
+		int requests = 0;
+		int prepares = 0;
+		long executions = 0;
+		long reused = 0;
+		for (Map.Entry<String, Entry> e : entries.entrySet()) {
+			String sql = e.getKey();
+			Entry entry = e.getValue();
+			int threshold = getPrepareThreshold(entry);
+			boolean server = threshold > 0 && isServerPrepared(sql, serverStatements);
+			long parsed = server ? Math.min(entry.executions, (long) threshold * entry.prepares) : entry.executions;
+			requests += entry.requests;
+			prepares += entry.prepares;
+			executions += entry.executions;
+			reused += entry.executions - parsed;
+			if (log.isLoggable(Level.FINE))
+				log.log(Level.FINE, "Statement angefordert: {0}, vorbereitet: {1}, ausgefhrt: {2}, wiederverwendet: {3}, neu geparst: {4}: {5}",
+						new Object[] { entry.requests, entry.prepares, entry.executions, entry.executions - parsed, parsed, sql });
+			if (entry.prepares > 1)
+				log.log(Level.WARNING, "Statement wurde {0}-mal vorbereitet: {1}",
+						new Object[] { entry.prepares, sql });
+			if (!server && threshold > 0 && entry.executions >= threshold)
+				log.log(Level.WARNING, "Statement wurde {0}-mal ausgefhrt, aber nie serverseitig vorbereitet: {1}",
+						new Object[] { entry.executions, sql });
+		}
+		log.log(Level.INFO, "Statement-Cache: {0} Statements, {1} angefordert, {2} vorbereitet, {3} ausgefhrt, davon {4} wiederverwendet und {5} neu geparst",
+				new Object[] { entries.size(), requests, prepares, executions, reused, executions - reused });
+	}
+
+	/**
+	 * Gibt den prepareThreshold des PostgreSQL-Treibers fr ein Statement
+	 * zurck.
+	 *
+	 * @param entry Eintrag des Caches.
+	 * @return prepareThreshold oder 0, falls der Befehl nie serverseitig
+	 *         vorbereitet wird.
+	 * @throws SQLException Bei einem Zugriffsfehler auf die Datenbank.
+	 */
+	private static int getPrepareThreshold(Entry entry) throws SQLException {
+		if (entry.target == null || entry.target.isClosed() || !entry.target.isWrapperFor(PGStatement.class))
+			return 0;
+		return Math.max(entry.target.unwrap(PGStatement.class).getPrepareThreshold(), 0);
+	}
+
+	/**
+	 * Liest die serverseitig vorbereiteten Statements der Verbindung aus
+	 * pg_prepared_statements. Eine dadurch begonnene Transaktion wird wieder
+	 * beendet.
+	 *
+	 * @return Normalisierte SQL-Befehle.
+	 * @throws SQLException Bei einem Zugriffsfehler auf die Datenbank.
+	 */
+	private Set<String> getServerStatements() throws SQLException {
+		Set<String> result = new HashSet<String>();
+		Statement statement = connection.createStatement();
+		try {
+			ResultSet rs = statement.executeQuery("SELECT statement FROM pg_prepared_statements");
+			while (rs.next())
+				result.add(normalize(rs.getString(1)));
+		} finally {
+			statement.close();
+			if (!connection.getAutoCommit())
+				connection.rollback();
+		}
+		return result;
+	}
+
+	/**
+	 * Prft, ob alle Teilbefehle eines SQL-Befehls serverseitig vorbereitet
+	 * sind. Der Treiber bereitet jeden durch Semikolon getrennten Teilbefehl
+	 * einzeln vor.
+	 *
+	 * @param sql SQL-Befehl.
+	 * @param serverStatements Normalisierte serverseitige Statements.
+	 * @return true, falls der Befehl serverseitig vorbereitet ist.
+	 */
+	private static boolean isServerPrepared(String sql, Set<String> serverStatements) {
+		for (String part : sql.split(";")) {
+			String normalized = normalize(part);
+			if (!normalized.isEmpty() && !serverStatements.contains(normalized))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Normalisiert einen SQL-Befehl fr den Vergleich mit
+	 * pg_prepared_statements: Der Treiber ersetzt die Parameter ? durch $1,
+	 * $2 usw. und Leerraum kann abweichen.
+	 *
+	 * @param sql SQL-Befehl.
+	 * @return Normalisierter Befehl.
+	 */
+	private static String normalize(String sql) {
+		return sql.replaceAll("\\$\\d+", "?").replaceAll("[\\s;]+", "");
+	}
+
+	/**
+	 * Schliet alle Prepared Statements.
+	 *
+	 * @throws SQLException Bei einem Zugriffsfehler auf die Datenbank.
+	 */
+	public void close() throws SQLException {
+		for (Entry entry : entries.values()) {
+			if (entry.target != null)
+				entry.target.close();
+		}
+		entries.clear();
+	}
+}
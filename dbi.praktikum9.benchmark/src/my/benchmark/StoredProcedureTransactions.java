@@ -1,36 +1,48 @@
 package my.benchmark;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
 
 /**
- * Diese Klasse implementiert die Einzahlungstransaktion ber den Aufruf einer
- * Stored Procedure. Diese muss vorher im DBMS angelegt worden sein.
+ * Diese Klasse implementiert alle drei Lasttransaktionen ber den Aufruf
+ * von Stored Procedures. Diese mssen vorher im DBMS angelegt worden sein,
+ * z. B. ber den {@link SqlFunctionInstaller} aus dem Verzeichnis SQL.
  * 
  */
-public class StoredProcedureTransactions implements DepositMoneyTransaction {
+public class StoredProcedureTransactions implements
+		AccountBalanceTransaction, DepositMoneyTransaction,
+		CountDeltaTransaction {
 
+	private PreparedStatement callAccountBalance;
 	private PreparedStatement callDepositMoney;
+	private PreparedStatement callCountDelta;
 	
 	/**
-	 * Initialisiert den Aufruf der Stored Procedure.
+	 * Initialisiert die Aufrufe der Stored Procedures.
 	 */
 	@Override
-	public void initialize(Connection connection) throws SQLException {
-		String sql = "SELECT depositmoney(?, ?, ?, ?, ?)";
-		callDepositMoney = connection.prepareStatement(sql);
+	public void initialize(StatementCache statements) throws SQLException {
+		callAccountBalance = statements.prepare("SELECT accountbalance(?)");
+		callDepositMoney = statements.prepare("SELECT depositmoney(?, ?, ?, ?, ?)");
+		callCountDelta = statements.prepare("SELECT countdelta(?)");
 	}
 
 	/**
-	 * Gibt alle verwendeten Ressourcen frei.
+	 * Die Aufrufe werden vom Statement-Cache geschlossen.
 	 */
 	@Override
 	public void close() throws SQLException {
-		if (callDepositMoney != null)
-			callDepositMoney.close();
+	}
+
+	/**
+	 * Fragt den Kontostand ber den Aufruf einer Stored Procedure ab.
+	 */
+	@Override
+	public int getAccountBalance(int accountID) throws SQLException {
+		callAccountBalance.setInt(1, accountID);
+		return queryInt(callAccountBalance);
 	}
 
 	/**
@@ -47,10 +59,31 @@ public class StoredProcedureTransactions implements DepositMoneyTransaction {
 		callDepositMoney.setInt(4, delta);
 		callDepositMoney.setString(5, FixedData.HISTORY_COMMENT);
 		
-		ResultSet result = callDepositMoney.executeQuery();
+		// Stored Procedure liefert den aktualisierten Kontostand
+		return queryInt(callDepositMoney);
+	}
+
+	/**
+	 * Zhlt History-Eintrge mit einem bestimmten Einzahlungsbetrag
+	 * ber den Aufruf einer Stored Procedure.
+	 */
+	@Override
+	public int countDeltaEntries(int delta) throws SQLException {
+		callCountDelta.setInt(1, delta);
+		return queryInt(callCountDelta);
+	}
+
+	/**
+	 * Ruft eine Stored Procedure auf und gibt ihren Rckgabewert zurck.
+	 * 
+	 * @param call Vorbereiteter Aufruf mit gesetzten Parametern.
+	 * @return Rckgabewert der Stored Procedure.
+	 * @throws SQLException Bei einem Zugriffsfehler auf die Datenbank.
+	 */
+	private int queryInt(PreparedStatement call) throws SQLException {
+		ResultSet result = call.executeQuery();
 		
 		try {
-			// Stored Procedure liefert den aktualisierten Kontostand
 			result.next();
 			return result.getInt(1);
 		}
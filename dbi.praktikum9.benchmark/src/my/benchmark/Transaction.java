@@ -1,6 +1,5 @@
 package my.benchmark;
 
-import java.sql.Connection;
 import java.sql.SQLException;
 
 /**
@@ -9,15 +8,17 @@ import java.sql.SQLException;
  */
 public interface Transaction {
 	/**
-	 * Initialisiert die Lasttransaktion.
+	 * Initialisiert die Lasttransaktion. Prepared Statements werden ber den
+	 * Statement-Cache der Datenbankverbindung angefordert.
 	 * 
-	 * @param connection Datenbankverbindung.
+	 * @param statements Statement-Cache der Datenbankverbindung.
 	 * @throws SQLException Bei einem Zugriffsfehler auf die Datenbank.
 	 */
-	void initialize(Connection connection) throws SQLException;
+	void initialize(StatementCache statements) throws SQLException;
 	
 	/**
-	 * Gibt die verwendeten Ressourcen der Lasttransaktion frei.
+	 * Gibt die verwendeten Ressourcen der Lasttransaktion frei. Die Prepared
+	 * Statements aus dem Statement-Cache werden vom Cache geschlossen.
 	 * 
 	 * @throws SQLException Bei einem Zugriffsfehler auf die Datenbank.
 	 */
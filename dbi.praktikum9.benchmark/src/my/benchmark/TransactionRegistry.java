@@ -0,0 +1,74 @@
+package my.benchmark;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Diese Registry erzeugt die konkreten Implementierungen der Lasttransaktionen
+ * einer Datenbankverbindung. Jede Klasse wird nur einmal instantiiert und
+ * initialisiert, auch wenn sie fr mehrere Lasttransaktionen konfiguriert ist
+ * (z. B. PreparedStatementTransactions fr Kontostand und Analyse). Die
+ * Prepared Statements teilen sich alle Implementierungen ber einen
+ * gemeinsamen {@link StatementCache}.
+ */
+public class TransactionRegistry {
+
+	private final StatementCache statements;
+	private final Map<String, Transaction> transactions = new LinkedHashMap<String, Transaction>();
+
+	/**
+	 * Initialisiert eine leere Registry fr eine Datenbankverbindung.
+	 *
+	 * @param connection Datenbankverbindung.
+	 */
+	public TransactionRegistry(Connection connection) {
+		statements = new StatementCache(connection);
+	}
+
+	/**
+	 * Gibt die Implementierung zu einem Klassennamen zurck. Beim ersten
+	 * Zugriff wird die Klasse ber Reflection geladen, instantiiert und
+	 * initialisiert.
+	 *
+	 * @param className Klassenname der konkreten Implementierung.
+	 * @return Lasttransaktion.
+	 * @throws Exception Falls die Klasse nicht geladen werden konnte.
+	 */
+	public Transaction get(String className) throws Exception {
+		Transaction transaction = transactions.get(className);
+		if (transaction == null) {
+			Class<?> class_ = Class.forName(className);
+			transaction = (Transaction) class_.newInstance();
+			transaction.initialize(statements);
+			transactions.put(className, transaction);
+		}
+		return transaction;
+	}
+
+	/**
+	 * Gibt den gemeinsamen Statement-Cache zurck.
+	 *
+	 * @return Statement-Cache.
+	 */
+	public StatementCache getStatements() {
+		return statements;
+	}
+
+	/**
+	 * Gibt die Ressourcen aller Implementierungen und danach die Prepared
+	 * Statements des Caches frei.
+	 *
+	 * @throws SQLException Bei einem Zugriffsfehler auf die Datenbank.
+	 */
+	public void close() throws SQLException {
+		try {
+			for (Transaction transaction : transactions.values())
+				transaction.close();
+		} finally {
+			transactions.clear();
+			statements.close();
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package my.benchmark;
+
+import java.util.Random;
+
+/**
+ * Diese Verteilung zieht alle IDs mit gleicher Wahrscheinlichkeit.
+ * 
+ */
+public class UniformKeyDistribution implements KeyDistribution {
+
+	private int keyCount;
+	
+	/**
+	 * Initialisiert die Gleichverteilung.
+	 * 
+	 * @param keyCount Anzahl der IDs.
+	 */
+	public UniformKeyDistribution(int keyCount) {
+		this.keyCount = keyCount;
+	}
+	
+	@Override
+	public int next(Random random) {
+		return random.nextInt(keyCount) + 1;
+	}
+}
@@ -0,0 +1,105 @@
+package my.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Diese Verteilung zieht die IDs nach dem Zipf-Gesetz: Die ID mit Rang i
+ * wird proportional zu 1 / i^theta gezogen, d.h. die ID 1 am hufigsten.
+ * 
+ * Das Ziehen erfolgt in konstanter Zeit nach Gray et al., "Quickly
+ * Generating Billion-Record Synthetic Databases" (wie in YCSB). Nur die
+ * Zeta-Konstante muss einmalig in O(n) berechnet werden; sie wird fr
+ * alle Worker eines LoadDrivers gemeinsam zwischengespeichert.
+ * 
+ */
+public class ZipfianKeyDistribution implements KeyDistribution {
+	
+	private static final Map<String, Double> zetaCache = 
+			new HashMap<String, Double>();
+
+	private int keyCount;
+	private double theta;
+	private double alpha;
+	private double zetaN;
+	private double eta;
+	private double threshold;
+	
+	/**
+	 * Initialisiert die Zipf-Verteilung.
+	 * 
+	 * @param keyCount Anzahl der IDs.
+	 * @param theta Schiefe der Verteilung, 0 < theta < 1.
+	 */
+	public ZipfianKeyDistribution(int keyCount, double theta) {
+		if (keyCount < 1 || theta <= 0.0 || theta >= 1.0)
+			throw new IllegalArgumentException(
+					"Ungltige Zipf-Verteilung: n=" + keyCount + ", theta=" + theta);
+		
+		this.keyCount = keyCount;
+		this.theta = theta;
+		
+		double zeta2 = zeta(2, theta);
+		zetaN = zeta(keyCount, theta);
+		alpha = 1.0 / (1.0 - theta);
+		eta = (1.0 - Math.pow(2.0 / keyCount, 1.0 - theta)) / (1.0 - zeta2 / zetaN);
+		threshold = 1.0 + Math.pow(0.5, theta);
+	}
+	
+	/**
+	 * Gibt die Schiefe der Verteilung zurck.
+	 * 
+	 * @return Schiefe theta.
+	 */
+	public double getTheta() {
+		return theta;
+	}
+	
+	@Override
+	public int next(Random random) {
+		return rank(random) + 1;
+	}
+	
+	/**
+	 * Zieht einen Rang, beginnend bei 0 fr die hufigste ID.
+	 * 
+	 * @param random Zufallszahlengenerator.
+	 * @return Rang im Bereich 0 bis Anzahl der IDs - 1.
+	 */
+	protected int rank(Random random) {
+		double u = random.nextDouble();
+		double uz = u * zetaN;
+		
+		if (uz < 1.0)
+			return 0;
+		if (uz < threshold)
+			return 1;
+		
+		int rank = (int) (keyCount * Math.pow(eta * u - eta + 1.0, alpha));
+		return Math.min(rank, keyCount - 1);
+	}
+	
+	/**
+	 * Berechnet die Zeta-Konstante sum(1 / i^theta) fr i = 1 bis n.
+	 * 
+	 * @param n Anzahl der IDs.
+	 * @param theta Schiefe der Verteilung.
+	 * @return Zeta-Konstante.
+	 */
+	private static double zeta(int n, double theta) {
+		String key = n + "/" + theta;
+		synchronized (zetaCache) {
+			Double cached = zetaCache.get(key);
+			if (cached != null)
+				return cached;
+			
+			double sum = 0.0;
+			for (int i = 1; i <= n; i++)
+				sum += 1.0 / Math.pow(i, theta);
+			
+			zetaCache.put(key, sum);
+			return sum;
+		}
+	}
+}